@@ -6,6 +6,10 @@ import android.view.animation.Animation;
 import android.view.animation.AnimationSet;
 import android.view.animation.TranslateAnimation;
 
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
 /**
  * use this class to implement animations of other view excluding YearView and MonthView.
  *
@@ -14,13 +18,16 @@ import android.view.animation.TranslateAnimation;
  */
 public class AnimTransiter {
     private int duration;
+    // views put on a hardware layer by an animation of this transiter, until it ends
+    private final Set<View> mLayeredViews = Collections.newSetFromMap(new WeakHashMap<View, Boolean>());
 
     void setDuration(int duration) {
         this.duration = duration;
     }
 
     /**
-     * start a custom animation, duration is specified.
+     * start a custom animation, duration is specified. It is started as given and keeps its own
+     * listener, so the view is not drawn into a hardware layer as with other animations here.
      * @param view view
      * @param animation animation
      */
@@ -38,7 +45,7 @@ public class AnimTransiter {
         if(view.getVisibility() == View.GONE)
             return;
         AlphaAnimation alphaA = createAlpha(showin);
-        view.startAnimation(alphaA);
+        startAnimation(view, alphaA);
     }
 
     /**
@@ -86,7 +93,54 @@ public class AnimTransiter {
         AnimationSet anims = new AnimationSet(false);
         anims.addAnimation(alphaA);
         anims.addAnimation(transA);
-        view.startAnimation(anims);
+        startAnimation(view, anims);
+    }
+
+    /**
+     * start an animation with the view drawn into a hardware layer, so a frame only composites
+     * the layer with alpha and translation instead of redrawing the view offscreen. The layer is
+     * dropped when the last animation started here on the view ends or is cancelled.
+     */
+    private void startAnimation(View view, Animation animation) {
+        boolean layered = mLayeredViews.contains(view);
+        if(!layered && view.isHardwareAccelerated() && view.getLayerType() == View.LAYER_TYPE_NONE) {
+            view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            mLayeredViews.add(view);
+            layered = true;
+        }
+        if(layered) {
+            animation.setAnimationListener(new LayerRestorer(view, animation));
+        }
+        view.startAnimation(animation);
+    }
+
+    private class LayerRestorer implements Animation.AnimationListener {
+        private final View view;
+        private final Animation animation;
+
+        LayerRestorer(View view, Animation animation) {
+            this.view = view;
+            this.animation = animation;
+        }
+
+        @Override
+        public void onAnimationStart(Animation animation) {
+        }
+
+        @Override
+        public void onAnimationEnd(Animation animation) {
+            Animation current = view.getAnimation();
+            if(current != null && current != this.animation)
+                // replaced by a newer animation, which restores the layer
+                return;
+            if(mLayeredViews.remove(view)) {
+                view.setLayerType(View.LAYER_TYPE_NONE, null);
+            }
+        }
+
+        @Override
+        public void onAnimationRepeat(Animation animation) {
+        }
     }
 
     private AlphaAnimation createAlpha(boolean showin) {
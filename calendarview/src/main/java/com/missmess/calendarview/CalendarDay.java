@@ -40,9 +40,6 @@ public class CalendarDay implements Comparable<CalendarDay> {
         this.day = day;
         calendarMonth = new CalendarMonth(year, month);
 
-        if(year < 1900) {
-            throw new IllegalArgumentException("year can not small than 1900");
-        }
         int maxDays = CalendarUtils.getDaysInMonth(month - 1, year);
         if(day > maxDays) {
             throw new IllegalArgumentException("this date doesn't exist");
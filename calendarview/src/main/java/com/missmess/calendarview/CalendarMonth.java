@@ -29,9 +29,7 @@ public class CalendarMonth implements Comparable<CalendarMonth> {
     public void setMonth(int year, int month) {
         this.year = year;
         this.month = month;
-        if(year < 1900) {
-            throw new IllegalArgumentException("year can not small than 1900");
-        }
+        CalendarUtils.checkYear(year);
         if(month < 1 || month > 12) {
             throw new IllegalArgumentException("month " + month + "doesn't exist");
         }
@@ -55,6 +53,14 @@ public class CalendarMonth implements Comparable<CalendarMonth> {
         return new CalendarMonth(preY, preM);
     }
 
+    /**
+     * @param months months to add, may be negative
+     * @return month after some months
+     */
+    public CalendarMonth plusMonths(int months) {
+        return CalendarUtils.fromMonthIndex(CalendarUtils.getMonthIndex(this) + months);
+    }
+
     public CalendarMonth next() {
         int nextY = year;
         int nextM = month + 1;
@@ -5,6 +5,54 @@ import java.util.Calendar;
 
 public class CalendarUtils
 {
+    /**
+     * earliest year of dates, dates follow proleptic gregorian calendar.
+     */
+    public static final int MIN_YEAR = 1;
+    /**
+     * latest year of dates.
+     */
+    public static final int MAX_YEAR = 9999;
+
+    /**
+     * epoch day of the first day of {@link #MIN_YEAR}.
+     */
+    public static final int MIN_EPOCH_DAY = toEpochDay(MIN_YEAR, 1, 1);
+    /**
+     * epoch day of the last day of {@link #MAX_YEAR}.
+     */
+    public static final int MAX_EPOCH_DAY = toEpochDay(MAX_YEAR, 12, 31);
+
+    static void checkYear(int year) {
+        if(year < MIN_YEAR || year > MAX_YEAR) {
+            throw new IllegalArgumentException("year " + year + " out of range [" + MIN_YEAR + ", " + MAX_YEAR + "]");
+        }
+    }
+
+    /**
+     * index of a month counted from January of year 0, so months can be compared, offset and
+     * subtracted as ints.
+     * @param year year
+     * @param month month 1-12
+     * @return month index
+     */
+    public static int getMonthIndex(int year, int month) {
+        return year * 12 + month - 1;
+    }
+
+    public static int getMonthIndex(CalendarMonth calendarMonth) {
+        return getMonthIndex(calendarMonth.getYear(), calendarMonth.getMonth());
+    }
+
+    /**
+     * reverse of {@link #getMonthIndex(int, int)}.
+     * @param monthIndex month index
+     * @return CalendarMonth
+     */
+    public static CalendarMonth fromMonthIndex(int monthIndex) {
+        return new CalendarMonth(monthIndex / 12, monthIndex % 12 + 1);
+    }
+
     public static int getDaysInMonth(CalendarMonth calendarMonth) {
         return getDaysInMonth(calendarMonth.getMonth() - 1, calendarMonth.getYear());
     }
@@ -30,4 +78,62 @@ public class CalendarUtils
                 throw new IllegalArgumentException("Invalid Month");
         }
 	}
+
+    /**
+     * get the number of days since 1970-01-01 of a date, pure arithmetic without Calendar.
+     * @param year year
+     * @param month month 1-12
+     * @param day day of month
+     * @return epoch day
+     */
+    public static int toEpochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    /**
+     * grid cells and weeks at range ends reach days out of [MIN_YEAR, MAX_YEAR], those days
+     * exist only as epoch days and never become a {@link CalendarDay}.
+     * @param epochDay days since 1970-01-01
+     * @return true if it is a day of [MIN_YEAR, MAX_YEAR]
+     */
+    static boolean isInRange(int epochDay) {
+        return epochDay >= MIN_EPOCH_DAY && epochDay <= MAX_EPOCH_DAY;
+    }
+
+    public static int toEpochDay(CalendarDay calendarDay) {
+        return toEpochDay(calendarDay.getYear(), calendarDay.getMonth(), calendarDay.getDay());
+    }
+
+    /**
+     * get day of week of an epoch day.
+     * @param epochDay days since 1970-01-01
+     * @return {@link Calendar#SUNDAY} to {@link Calendar#SATURDAY}
+     */
+    public static int getDayOfWeek(int epochDay) {
+        // 1970-01-01 is thursday
+        return ((epochDay + 4) % 7 + 7) % 7 + Calendar.SUNDAY;
+    }
+
+    /**
+     * reverse of {@link #toEpochDay(int, int, int)}.
+     * @param epochDay days since 1970-01-01
+     * @return CalendarDay
+     */
+    public static CalendarDay fromEpochDay(int epochDay) {
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int doe = z - era * 146097;
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        return new CalendarDay(year, month, day);
+    }
 }
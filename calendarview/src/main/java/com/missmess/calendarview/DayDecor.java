@@ -3,6 +3,8 @@ package com.missmess.calendarview;
 import android.graphics.Paint;
 import android.graphics.drawable.Drawable;
 import android.support.annotation.ColorInt;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -13,9 +15,17 @@ import java.util.Map;
  */
 public class DayDecor {
     private Map<CalendarDay, Style> decorMaps;
+    // same styles keyed by epoch day, for lookups while drawing
+    private SparseArray<Style> epochDayIndex;
+    // increased on every change, each year keeps the version of its last change
+    private int version;
+    private int clearVersion;
+    private SparseIntArray yearVersions;
 
     public DayDecor() {
         decorMaps = new HashMap<>();
+        epochDayIndex = new SparseArray<>();
+        yearVersions = new SparseIntArray();
     }
 
     /**
@@ -58,10 +68,14 @@ public class DayDecor {
      */
     public void putOne(CalendarDay calendarDay, Style style) {
         decorMaps.put(calendarDay, style);
+        epochDayIndex.put(CalendarUtils.toEpochDay(calendarDay), style);
+        yearVersions.put(calendarDay.getYear(), ++version);
     }
 
     public void putAll(Map<CalendarDay, Style> decors) {
-        decorMaps.putAll(decors);
+        for(Map.Entry<CalendarDay, Style> entry : decors.entrySet()) {
+            putOne(entry.getKey(), entry.getValue());
+        }
     }
 
     /**
@@ -79,8 +93,60 @@ public class DayDecor {
         return decorMaps.get(calendarDay);
     }
 
+    /**
+     * get decor style without creating a CalendarDay.
+     * @param epochDay days since 1970-01-01
+     * @return {@link Style}
+     */
+    Style getDecorStyle(int epochDay) {
+        return epochDayIndex.get(epochDay);
+    }
+
+    /**
+     * a copy holding only decors from a day to another day, e.g. decors of a month bound by a
+     * {@link MonthPagerAdapter}. Styles are shared with this.
+     * @param from first day, inclusive
+     * @param to last day, inclusive
+     * @return DayDecor
+     */
+    public DayDecor slice(CalendarDay from, CalendarDay to) {
+        return slice(CalendarUtils.toEpochDay(from), CalendarUtils.toEpochDay(to));
+    }
+
+    /**
+     * a copy holding only decors from a day to another day, e.g. decors of a year. Styles are
+     * shared with this.
+     * @param fromEpochDay first day, inclusive
+     * @param toEpochDay last day, inclusive
+     * @return DayDecor
+     */
+    DayDecor slice(int fromEpochDay, int toEpochDay) {
+        DayDecor slice = new DayDecor();
+        // keys are sorted, binary search the first key not less than fromEpochDay
+        int lo = 0;
+        int hi = epochDayIndex.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if(epochDayIndex.keyAt(mid) < fromEpochDay)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        for (int i = lo; i < epochDayIndex.size(); i++) {
+            int epochDay = epochDayIndex.keyAt(i);
+            if(epochDay > toEpochDay)
+                break;
+            Style style = epochDayIndex.valueAt(i);
+            slice.decorMaps.put(CalendarUtils.fromEpochDay(epochDay), style);
+            slice.epochDayIndex.append(epochDay, style);
+        }
+        return slice;
+    }
+
     public void remove(CalendarDay calendarDay) {
         decorMaps.remove(calendarDay);
+        epochDayIndex.remove(CalendarUtils.toEpochDay(calendarDay));
+        yearVersions.put(calendarDay.getYear(), ++version);
     }
 
     /**
@@ -88,10 +154,22 @@ public class DayDecor {
      */
     public void clear() {
         decorMaps.clear();
+        epochDayIndex.clear();
+        yearVersions.clear();
+        clearVersion = ++version;
+    }
+
+    /**
+     * version of decors of a year, it changes whenever a decor of the year is put or removed.
+     * @param year year
+     * @return version
+     */
+    int getYearVersion(int year) {
+        return Math.max(yearVersions.get(year, 0), clearVersion);
     }
 
     /**
-     * get style maps
+     * get style maps, it should be read only.
      * @return map
      * @hide
      */
@@ -0,0 +1,160 @@
+package com.missmess.calendarview;
+
+import android.support.annotation.ColorInt;
+
+/**
+ * Per-day values of a year shaded through a color lookup table, like a contribution graph.
+ * Values are kept in an int array indexed by day of year, and mapped into colors once when values
+ * or buckets change, so drawing a day is an array read without any {@link DayDecor.Style}.
+ * Set it again to views showing it after changing values.
+ */
+public class DayHeatmap {
+    private static final int[] DEFAULT_THRESHOLDS = {1, 3, 6, 10};
+    private static final int[] DEFAULT_COLORS = {0xffc6e48b, 0xff7bc96f, 0xff239a3b, 0xff196127};
+
+    private final int year;
+    private final int firstEpochDay;
+    private final int[] values;
+    // bucket i covers values from thresholds[i] to thresholds[i + 1] - 1
+    private int[] thresholds = DEFAULT_THRESHOLDS;
+    private int[] colors = DEFAULT_COLORS;
+    // color of each day, 0 if not shaded
+    private final int[] dayColors;
+    private int shape = DayDecor.Style.CIRCLE;
+
+    /**
+     * @param year year of values
+     */
+    public DayHeatmap(int year) {
+        this.year = year;
+        firstEpochDay = CalendarUtils.toEpochDay(year, 1, 1);
+        int days = CalendarUtils.toEpochDay(year + 1, 1, 1) - firstEpochDay;
+        values = new int[days];
+        dayColors = new int[days];
+    }
+
+    /**
+     * set values of days.
+     * @param values value of each day, index 0 is January 1st. Missing days are 0.
+     */
+    public void setValues(int[] values) {
+        int count = Math.min(values.length, this.values.length);
+        System.arraycopy(values, 0, this.values, 0, count);
+        for (int i = count; i < this.values.length; i++) {
+            this.values[i] = 0;
+        }
+        updateColors();
+    }
+
+    /**
+     * set values of days from a provider, it is called once for each day of the year.
+     * @param provider provider
+     */
+    public void setValues(ValueProvider provider) {
+        int i = 0;
+        for (int month = 1; month <= 12; month++) {
+            int days = CalendarUtils.getDaysInMonth(month - 1, year);
+            for (int day = 1; day <= days; day++) {
+                values[i++] = provider.getValue(year, month, day);
+            }
+        }
+        updateColors();
+    }
+
+    /**
+     * set value of a day.
+     * @param calendarDay day in year of this heatmap
+     * @param value value
+     */
+    public void setValue(CalendarDay calendarDay, int value) {
+        int index = CalendarUtils.toEpochDay(calendarDay) - firstEpochDay;
+        if(index < 0 || index >= values.length)
+            throw new IllegalArgumentException("day out of year " + year);
+        values[index] = value;
+        dayColors[index] = lookupColor(value);
+    }
+
+    /**
+     * set buckets of values and their colors. a value less than the first threshold is not shaded.
+     * @param thresholds lowest value of each bucket, ascending
+     * @param colors color of each bucket
+     */
+    public void setBuckets(int[] thresholds, @ColorInt int[] colors) {
+        if(thresholds.length != colors.length)
+            throw new IllegalArgumentException("thresholds and colors must have same length");
+        for (int i = 1; i < thresholds.length; i++) {
+            if(thresholds[i] <= thresholds[i - 1])
+                throw new IllegalArgumentException("thresholds must be ascending");
+        }
+        this.thresholds = thresholds.clone();
+        this.colors = colors.clone();
+        updateColors();
+    }
+
+    /**
+     * @param shape {@link DayDecor.Style#CIRCLE circle}, {@link DayDecor.Style#RECTANGLE rectangle}
+     */
+    public void setShape(int shape) {
+        this.shape = shape;
+    }
+
+    public int getShape() {
+        return shape;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * @param calendarDay day in year of this heatmap
+     * @return value of the day
+     */
+    public int getValue(CalendarDay calendarDay) {
+        int index = CalendarUtils.toEpochDay(calendarDay) - firstEpochDay;
+        return index < 0 || index >= values.length ? 0 : values[index];
+    }
+
+    /**
+     * color of a day.
+     * @param epochDay days since 1970-01-01
+     * @return color, 0 if not shaded or out of this year
+     */
+    int getColor(int epochDay) {
+        int index = epochDay - firstEpochDay;
+        return index < 0 || index >= dayColors.length ? 0 : dayColors[index];
+    }
+
+    private void updateColors() {
+        for (int i = 0; i < values.length; i++) {
+            dayColors[i] = lookupColor(values[i]);
+        }
+    }
+
+    // binary search the last bucket whose threshold is not greater than value
+    private int lookupColor(int value) {
+        int lo = 0;
+        int hi = thresholds.length - 1;
+        int bucket = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if(thresholds[mid] <= value) {
+                bucket = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return bucket == -1 ? 0 : colors[bucket];
+    }
+
+    public interface ValueProvider {
+        /**
+         * @param year year
+         * @param month month, 1 - 12
+         * @param day day of month
+         * @return value of the day
+         */
+        int getValue(int year, int month, int day);
+    }
+}
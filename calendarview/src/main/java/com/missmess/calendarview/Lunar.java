@@ -1,14 +1,18 @@
 package com.missmess.calendarview;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
-
 /**
- * 中国农历
+ * 中国农历, 由 {@link #MIN_YEAR} 至 {@link #MAX_YEAR} 的农历表计算. 表外的日期不能转为农历, 用
+ * {@link #isSupported(CalendarDay)} 检查; 干支和生肖不受此限.
  */
 public class Lunar {
+    /**
+     * 农历表的第一年
+     */
+    public static final int MIN_YEAR = 1900;
+    /**
+     * 农历表的最后一年
+     */
+    public static final int MAX_YEAR = 2049;
     private int year; //农历年
     private int month; //农历月
     private int day; //农历日
@@ -32,6 +36,35 @@ public class Lunar {
                     0x07954, 0x06aa0, 0x0ad50, 0x05b52, 0x04b60, 0x0a6e6, 0x0a4e0, 0x0d260, 0x0ea65, 0x0d530,
                     0x05aa0, 0x076a3, 0x096d0, 0x04bd7, 0x04ad0, 0x0a4d0, 0x1d0b6, 0x0d250, 0x0d520, 0x0dd45,
                     0x0b5a0, 0x056d0, 0x055b2, 0x049b0, 0x0a577, 0x0a4b0, 0x0aa50, 0x1b255, 0x06d20, 0x0ada0};
+    // 1900年1月31日 (农历1900年正月初一) 的 epoch day
+    private static final int BASE_EPOCH_DAY = CalendarUtils.toEpochDay(1900, 1, 31);
+    // 农历表最后一天之后的 epoch day
+    private static final int END_EPOCH_DAY;
+
+    static {
+        int days = 0;
+        for (int y = MIN_YEAR; y <= MAX_YEAR; y++) {
+            days += yearDays(y);
+        }
+        END_EPOCH_DAY = BASE_EPOCH_DAY + days;
+    }
+
+    /**
+     * 日期是否在农历表内
+     * @param cal 日期
+     * @return true-可以转为农历
+     */
+    public static boolean isSupported(CalendarDay cal) {
+        int epochDay = CalendarUtils.toEpochDay(cal);
+        return epochDay >= BASE_EPOCH_DAY && epochDay < END_EPOCH_DAY;
+    }
+
+    // 农历 y年的表项, 表外抛出 IllegalArgumentException
+    private static long info(int y) {
+        if (y < MIN_YEAR || y > MAX_YEAR)
+            throw new IllegalArgumentException("lunar year " + y + " out of [" + MIN_YEAR + ", " + MAX_YEAR + "]");
+        return lunarInfo[y - MIN_YEAR];
+    }
 
     /**
      * 传回农历 y年的总天数
@@ -41,7 +74,7 @@ public class Lunar {
     public static int yearDays(int y) {
         int i, sum = 348;
         for (i = 0x8000; i > 0x8; i >>= 1) {
-            if ((lunarInfo[y - 1900] & i) != 0) sum += 1;
+            if ((info(y) & i) != 0) sum += 1;
         }
         return (sum + leapDays(y));
     }
@@ -53,7 +86,7 @@ public class Lunar {
      */
     public static int leapDays(int y) {
         if (leapMonth(y) != 0) {
-            if ((lunarInfo[y - 1900] & 0x10000) != 0)
+            if ((info(y) & 0x10000) != 0)
                 return 30;
             else
                 return 29;
@@ -67,7 +100,7 @@ public class Lunar {
      * @return 月份 1-12
      */
     public static int leapMonth(int y) {
-        return (int) (lunarInfo[y - 1900] & 0xf);
+        return (int) (info(y) & 0xf);
     }
 
     /**
@@ -77,7 +110,7 @@ public class Lunar {
      * @return 天数
      */
     public static int monthDays(int y, int m) {
-        if ((lunarInfo[y - 1900] & (0x10000 >> m)) == 0)
+        if ((info(y) & (0x10000 >> m)) == 0)
             return 29;
         else
             return 30;
@@ -90,7 +123,7 @@ public class Lunar {
      */
     public static String animalsYear(int y) {
         final String[] Animals = new String[]{"鼠", "牛", "虎", "兔", "龙", "蛇", "马", "羊", "猴", "鸡", "狗", "猪"};
-        return Animals[(y - 4) % 12];
+        return Animals[((y - 4) % 12 + 12) % 12];
     }
 
     /**
@@ -99,7 +132,8 @@ public class Lunar {
      * @return 干支, “甲子”
      */
     public static String cyclical(int y) {
-        int num = y - 1900 + 36;
+        // 1864年为甲子年
+        int num = ((y - 1864) % 60 + 60) % 60;
         return (cyclicalm(num));
     }
 
@@ -137,22 +171,17 @@ public class Lunar {
 
     /**
      * 当前日历生成对应农历日期
-     * @param cal 当前时间日历
+     * @param cal 当前时间日历, 须在农历表内
+     * @throws IllegalArgumentException 日期不在农历表内, 见 {@link #isSupported(CalendarDay)}
      */
     public Lunar(CalendarDay cal) {
+        if (!isSupported(cal))
+            throw new IllegalArgumentException(cal + " out of lunar table");
         int yearCyl, monCyl, dayCyl;
         int leapMonth;
-        Date baseDate;
-        try {
-            SimpleDateFormat chineseDateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-            baseDate = chineseDateFormat.parse("1900-1-31");
-        } catch (ParseException e) {
-            e.printStackTrace();
-            baseDate = new Date();
-        }
 
         //求出和1900年1月31日相差的天数
-        int offset = (int) ((cal.getDate().getTime() - baseDate.getTime()) / 86400000L);
+        int offset = CalendarUtils.toEpochDay(cal) - BASE_EPOCH_DAY;
         dayCyl = offset + 40;
         monCyl = 14;
 
@@ -161,7 +190,7 @@ public class Lunar {
         //i最终结果是农历的年份
         //offset是当年的第几天
         int iYear, daysOfYear = 0;
-        for (iYear = 1900; iYear < 2050 && offset > 0; iYear++) {
+        for (iYear = MIN_YEAR; iYear <= MAX_YEAR && offset > 0; iYear++) {
             daysOfYear = yearDays(iYear);
             offset -= daysOfYear;
             monCyl += 12;
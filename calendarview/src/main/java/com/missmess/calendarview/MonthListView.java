@@ -0,0 +1,643 @@
+package com.missmess.calendarview;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.support.v4.util.LruCache;
+import android.support.v4.view.ViewCompat;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.widget.OverScroller;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A vertical continuous list of months, each month is a {@link MonthView} as tall as its rows.
+ * Attributes of MonthView set on this view style all months. Only visible months and a few
+ * prefetched months around them are attached, MonthViews scrolled out are recycled for coming
+ * months.
+ *
+ * <p>Offset of a month is computed from prefix sums of rows instead of measuring months above
+ * it: rows of months repeat every 400 years, so sums of one cycle give the offset of any month
+ * in O(1), and the month at an offset is found by a binary search in O(log n).</p>
+ */
+public class MonthListView extends ViewGroup {
+    private static final int DEFAULT_PREFETCH_MONTHS = 2;
+    // decor slices are kept for this many months at most
+    private static final int MONTH_CACHE_SIZE = 32;
+    // months of 400 years, after which weekdays and rows repeat
+    private static final int CYCLE_MONTHS = 400 * 12;
+
+    private final MonthViewStyle mStyle;
+    private int minMonth;
+    private int maxMonth;
+    private int prefetchMonths;
+    // month index of the first attached child, children are consecutive months
+    private int firstMonth;
+    // offset of viewport top from top of minMonth
+    private long mScrollY;
+    private int lastNotifiedMonth = -1;
+    private int weekStart;
+    private CalendarDay today;
+    private DayDecor mDecors;
+    // shared by all months
+    private SelectionModel mSelectionModel = new SelectionModel();
+    private MonthPagerAdapter mAdapter;
+    private AdapterChangeObserver mAdapterObserver;
+    // adapter month id each view is bound to
+    private final Map<MonthView, Long> mBoundIds = new HashMap<>();
+
+    // height above day rows and height of a row, same for all months
+    private int daysTop = -1;
+    private int rowHeight;
+    // rows of months before each month of a cycle, cycleRows[CYCLE_MONTHS] is rows of a cycle
+    private int[] cycleRows;
+    private int cycleWeekStart;
+
+    private final List<MonthView> scrapViews = new ArrayList<>();
+    private final LruCache<Integer, DayDecor> decorSlices = new LruCache<>(MONTH_CACHE_SIZE);
+
+    private final OverScroller mScroller;
+    private VelocityTracker mVelocityTracker;
+    private final int mTouchSlop;
+    private final int mMinimumVelocity;
+    private final int mMaximumVelocity;
+    private boolean mIsBeingDragged;
+    private float mLastMotionY;
+    private int mLastFlingY;
+
+    private MonthView.OnDayClickListener mOnDayClickListener;
+    private List<OnMonthChangeListener> mChangeListeners;
+
+    public MonthListView(Context context) {
+        this(context, null);
+    }
+
+    public MonthListView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        mStyle = MonthViewStyle.obtain(context, attrs);
+        TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.MonthListView);
+        prefetchMonths = typedArray.getInt(R.styleable.MonthListView_prefetchMonths, DEFAULT_PREFETCH_MONTHS);
+        typedArray.recycle();
+
+        today = new CalendarDay(Calendar.getInstance());
+        weekStart = Calendar.getInstance().getFirstDayOfWeek();
+        minMonth = CalendarUtils.getMonthIndex(CalendarUtils.MIN_YEAR, 1);
+        maxMonth = CalendarUtils.getMonthIndex(CalendarUtils.MAX_YEAR, 12);
+        firstMonth = CalendarUtils.getMonthIndex(today.getCalendarMonth());
+
+        mScroller = new OverScroller(context);
+        ViewConfiguration configuration = ViewConfiguration.get(context);
+        mTouchSlop = configuration.getScaledTouchSlop();
+        mMinimumVelocity = configuration.getScaledMinimumFlingVelocity();
+        mMaximumVelocity = configuration.getScaledMaximumFlingVelocity();
+    }
+
+    /**
+     * create a MonthView for months, override to customize them. Views are reused for other months.
+     * @return MonthView
+     */
+    protected MonthView createMonthView() {
+        return new MonthView(getContext(), mStyle);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mScroller.abortAnimation();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        // children are measured when they are attached in layout
+        setMeasuredDimension(getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec),
+                getDefaultSize(getSuggestedMinimumHeight(), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        if(daysTop < 0) {
+            // initial month
+            mScrollY = getMonthTop(firstMonth);
+        }
+        // place children at their offsets again
+        for (int i = 0; i < getChildCount(); i++) {
+            layoutMonthView((MonthView) getChildAt(i), firstMonth + i);
+        }
+        scrollMonths(0);
+    }
+
+    private void layoutMonthView(MonthView child, int month) {
+        child.measure(MeasureSpec.makeMeasureSpec(getWidth(), MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+        int top = (int) (getMonthTop(month) - mScrollY);
+        child.layout(0, top, getWidth(), top + child.getMeasuredHeight());
+    }
+
+    /**
+     * scroll content, then attach and recycle months to fill the viewport.
+     * @param dy distance, positive to move content up
+     * @return true if reached the first or last month
+     */
+    private boolean scrollMonths(int dy) {
+        if(getHeight() == 0)
+            return true;
+        ensureGeometry();
+        long maxScroll = Math.max(0, getMonthTop(maxMonth + 1) - getHeight());
+        long target = mScrollY + dy;
+        long scrollY = Math.max(0, Math.min(maxScroll, target));
+        offsetChildren((int) (mScrollY - scrollY));
+        mScrollY = scrollY;
+        fill();
+        invalidate();
+        return scrollY != target;
+    }
+
+    private void offsetChildren(int offset) {
+        if(offset == 0)
+            return;
+        for (int i = 0; i < getChildCount(); i++) {
+            getChildAt(i).offsetTopAndBottom(offset);
+        }
+    }
+
+    // attach months covering the viewport and prefetch months around them, recycle the others
+    private void fill() {
+        int firstVisible = getMonthAt(mScrollY);
+        int lastVisible = getMonthAt(mScrollY + getHeight() - 1);
+        int from = Math.max(minMonth, firstVisible - prefetchMonths);
+        int to = Math.min(maxMonth, lastVisible + prefetchMonths);
+
+        while(getChildCount() > 0 && firstMonth < from) {
+            recycle(getChildAt(0));
+            firstMonth++;
+        }
+        while(getChildCount() > 0 && getLastMonth() > to) {
+            recycle(getChildAt(getChildCount() - 1));
+        }
+        if(getChildCount() == 0) {
+            firstMonth = from;
+            attachMonth(false);
+        }
+        while(firstMonth > from) {
+            attachMonth(true);
+        }
+        while(getLastMonth() < to) {
+            attachMonth(false);
+        }
+        dispatchOnMonthChange(firstVisible);
+    }
+
+    private int getLastMonth() {
+        return firstMonth + getChildCount() - 1;
+    }
+
+    // attach a month above the first child or below the last child
+    private void attachMonth(boolean above) {
+        int month;
+        if(getChildCount() == 0) {
+            month = firstMonth;
+        } else {
+            month = above ? firstMonth - 1 : getLastMonth() + 1;
+        }
+        MonthView monthView = obtainMonthView(month);
+        addViewInLayout(monthView, above ? 0 : -1, new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT), true);
+        if(above) {
+            firstMonth = month;
+        }
+        layoutMonthView(monthView, month);
+    }
+
+    private MonthView obtainMonthView(int month) {
+        MonthView monthView;
+        if(scrapViews.isEmpty()) {
+            monthView = createMonthView();
+            monthView.setOnDayClickListener(mOnDayClickListener);
+            monthView.setSelectionModel(mSelectionModel);
+        } else {
+            monthView = scrapViews.remove(scrapViews.size() - 1);
+        }
+        monthView.setToday(today);
+        monthView.setYearAndMonth(month / 12, month % 12 + 1);
+        if(mDecors != null) {
+            monthView.setDecors(getDecorSlice(month));
+        }
+        bindAdapter(monthView, false);
+        return monthView;
+    }
+
+    private void recycle(View child) {
+        removeViewInLayout(child);
+        mBoundIds.remove(child);
+        scrapViews.add((MonthView) child);
+    }
+
+    private void recycleAll() {
+        while(getChildCount() > 0) {
+            recycle(getChildAt(getChildCount() - 1));
+        }
+    }
+
+    // decors of a month, cut on UI thread as DayDecor is not thread safe
+    private DayDecor getDecorSlice(int month) {
+        DayDecor slice = decorSlices.get(month);
+        if(slice == null) {
+            int year = month / 12;
+            int m = month % 12 + 1;
+            slice = mDecors.slice(CalendarUtils.toEpochDay(year, m, 1),
+                    CalendarUtils.toEpochDay(year, m, CalendarUtils.getDaysInMonth(m - 1, year)));
+            decorSlices.put(month, slice);
+        }
+        return slice;
+    }
+
+    // bind month of a view to adapter, if not bound yet or forced
+    private void bindAdapter(MonthView monthView, boolean force) {
+        if(mAdapter == null)
+            return;
+        CalendarMonth month = monthView.getCurrentMonth();
+        long id = mAdapter.getMonthId(month);
+        Long bound = mBoundIds.get(monthView);
+        if(!force && bound != null && bound == id)
+            return;
+        mBoundIds.put(monthView, id);
+        mAdapter.onBindMonth(monthView, month);
+    }
+
+    // rebind views bound to changed months
+    private class AdapterChangeObserver implements MonthPagerAdapter.AdapterObserver {
+        @Override
+        public void onMonthChanged(long monthId) {
+            for (int i = 0; i < getChildCount(); i++) {
+                MonthView monthView = (MonthView) getChildAt(i);
+                Long bound = mBoundIds.get(monthView);
+                if(bound != null && bound == monthId) {
+                    bindAdapter(monthView, true);
+                }
+            }
+        }
+
+        @Override
+        public void onChanged() {
+            for (int i = 0; i < getChildCount(); i++) {
+                bindAdapter((MonthView) getChildAt(i), true);
+            }
+        }
+    }
+
+    // take header and row heights from a MonthView, and rows of a cycle for current week start
+    private void ensureGeometry() {
+        if(daysTop < 0) {
+            MonthView monthView = getChildCount() > 0 ? (MonthView) getChildAt(0) : obtainMonthView(firstMonth);
+            rowHeight = monthView.getDayRowHeight();
+            daysTop = monthView.getMaxHeight() - MonthRenderer.DEFAULT_NUM_ROWS * rowHeight;
+            if(monthView.getParent() == null) {
+                scrapViews.add(monthView);
+            }
+        }
+        if(cycleRows == null || cycleWeekStart != weekStart) {
+            cycleWeekStart = weekStart;
+            cycleRows = new int[CYCLE_MONTHS + 1];
+            for (int i = 0; i < CYCLE_MONTHS; i++) {
+                cycleRows[i + 1] = cycleRows[i] + MonthRenderer.calculateNumRows(i / 12, i % 12 + 1, weekStart);
+            }
+        }
+    }
+
+    // rows of all months before a month index
+    private long getRowsBefore(int month) {
+        return (long) (month / CYCLE_MONTHS) * cycleRows[CYCLE_MONTHS] + cycleRows[month % CYCLE_MONTHS];
+    }
+
+    // offset of a month's top from top of minMonth, O(1)
+    long getMonthTop(int month) {
+        ensureGeometry();
+        return (long) (month - minMonth) * daysTop + (getRowsBefore(month) - getRowsBefore(minMonth)) * rowHeight;
+    }
+
+    // month at an offset from top of minMonth, binary search on offsets
+    int getMonthAt(long offset) {
+        int lo = minMonth;
+        int hi = maxMonth;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if(getMonthTop(mid) <= offset) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(MotionEvent ev) {
+        int action = ev.getActionMasked();
+        if(action == MotionEvent.ACTION_MOVE && mIsBeingDragged)
+            return true;
+        switch (action) {
+            case MotionEvent.ACTION_DOWN:
+                mLastMotionY = ev.getY();
+                // touch on a flinging list stops it and drags
+                mIsBeingDragged = !mScroller.isFinished();
+                mScroller.abortAnimation();
+                obtainVelocityTracker().addMovement(ev);
+                break;
+            case MotionEvent.ACTION_MOVE:
+                obtainVelocityTracker().addMovement(ev);
+                if(Math.abs(ev.getY() - mLastMotionY) > mTouchSlop) {
+                    startDrag(ev.getY());
+                }
+                break;
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                mIsBeingDragged = false;
+                recycleVelocityTracker();
+                break;
+        }
+        return mIsBeingDragged;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent ev) {
+        obtainVelocityTracker().addMovement(ev);
+        switch (ev.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                mLastMotionY = ev.getY();
+                mScroller.abortAnimation();
+                break;
+            case MotionEvent.ACTION_MOVE:
+                float y = ev.getY();
+                if(!mIsBeingDragged && Math.abs(y - mLastMotionY) > mTouchSlop) {
+                    startDrag(y);
+                }
+                if(mIsBeingDragged) {
+                    int dy = (int) (mLastMotionY - y);
+                    // keep the fraction for next move
+                    mLastMotionY -= dy;
+                    scrollMonths(dy);
+                }
+                break;
+            case MotionEvent.ACTION_UP:
+                if(mIsBeingDragged) {
+                    mVelocityTracker.computeCurrentVelocity(1000, mMaximumVelocity);
+                    int velocity = (int) mVelocityTracker.getYVelocity();
+                    if(Math.abs(velocity) > mMinimumVelocity) {
+                        fling(-velocity);
+                    }
+                }
+                mIsBeingDragged = false;
+                recycleVelocityTracker();
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                mIsBeingDragged = false;
+                recycleVelocityTracker();
+                break;
+        }
+        return true;
+    }
+
+    private void startDrag(float y) {
+        mIsBeingDragged = true;
+        mLastMotionY = y;
+        ViewParent parent = getParent();
+        if(parent != null) {
+            parent.requestDisallowInterceptTouchEvent(true);
+        }
+    }
+
+    private VelocityTracker obtainVelocityTracker() {
+        if(mVelocityTracker == null) {
+            mVelocityTracker = VelocityTracker.obtain();
+        }
+        return mVelocityTracker;
+    }
+
+    private void recycleVelocityTracker() {
+        if(mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+    }
+
+    private void fling(int velocityY) {
+        mLastFlingY = 0;
+        mScroller.fling(0, 0, 0, velocityY, 0, 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        ViewCompat.postInvalidateOnAnimation(this);
+    }
+
+    @Override
+    public void computeScroll() {
+        if(mScroller.computeScrollOffset()) {
+            int y = mScroller.getCurrY();
+            int dy = y - mLastFlingY;
+            mLastFlingY = y;
+            if(scrollMonths(dy)) {
+                mScroller.abortAnimation();
+            } else {
+                ViewCompat.postInvalidateOnAnimation(this);
+            }
+        }
+    }
+
+    private void dispatchOnMonthChange(int month) {
+        if(month == lastNotifiedMonth)
+            return;
+        lastNotifiedMonth = month;
+        if(mChangeListeners != null) {
+            CalendarMonth calendarMonth = CalendarUtils.fromMonthIndex(month);
+            for(OnMonthChangeListener listener : mChangeListeners) {
+                listener.onMonthChange(this, calendarMonth);
+            }
+        }
+    }
+
+    /**
+     * scroll to show a month at top.
+     * @param calendarMonth month
+     */
+    public void setMonth(CalendarMonth calendarMonth) {
+        mScroller.abortAnimation();
+        int month = Math.max(minMonth, Math.min(maxMonth, CalendarUtils.getMonthIndex(calendarMonth)));
+        if(daysTop < 0) {
+            // scrolled to in first layout
+            firstMonth = month;
+            return;
+        }
+        mScrollY = getMonthTop(month);
+        recycleAll();
+        firstMonth = month;
+        requestLayout();
+    }
+
+    /**
+     * set range of months in list.
+     * @param start first month
+     * @param end last month
+     */
+    public void setMonthRange(CalendarMonth start, CalendarMonth end) {
+        if(start.compareTo(end) > 0) {
+            throw new IllegalArgumentException("start month cannot larger than end month");
+        }
+        CalendarMonth first = getFirstVisibleMonth();
+        minMonth = CalendarUtils.getMonthIndex(start);
+        maxMonth = CalendarUtils.getMonthIndex(end);
+        // offsets are counted from minMonth
+        daysTop = -1;
+        recycleAll();
+        firstMonth = Math.max(minMonth, Math.min(maxMonth, CalendarUtils.getMonthIndex(first)));
+        requestLayout();
+    }
+
+    /**
+     * @return first visible month
+     */
+    public CalendarMonth getFirstVisibleMonth() {
+        if(daysTop < 0 || getHeight() == 0)
+            return CalendarUtils.fromMonthIndex(firstMonth);
+        return CalendarUtils.fromMonthIndex(getMonthAt(mScrollY));
+    }
+
+    /**
+     * get the attached MonthView showing a month.
+     * @param calendarMonth month
+     * @return MonthView, null if the month is not attached
+     */
+    public MonthView getMonthView(CalendarMonth calendarMonth) {
+        int index = CalendarUtils.getMonthIndex(calendarMonth) - firstMonth;
+        if(index < 0 || index >= getChildCount())
+            return null;
+        return (MonthView) getChildAt(index);
+    }
+
+    /**
+     * how many months are kept attached beyond visible months on each side. They are bound
+     * (decors sliced, adapter called) before they scroll in.
+     * @param prefetchMonths months, 0 to attach visible months only
+     */
+    public void setPrefetchMonths(int prefetchMonths) {
+        this.prefetchMonths = Math.max(0, prefetchMonths);
+        requestLayout();
+    }
+
+    public void setToday(CalendarDay today) {
+        this.today = today;
+        for (int i = 0; i < getChildCount(); i++) {
+            ((MonthView) getChildAt(i)).setToday(today);
+        }
+    }
+
+    /**
+     * set decors of all months. Call it again after changing decors, each month only keeps its
+     * own part of them.
+     * @param decors DayDecor
+     */
+    public void setDecors(DayDecor decors) {
+        mDecors = decors;
+        decorSlices.evictAll();
+        for (int i = 0; i < getChildCount(); i++) {
+            ((MonthView) getChildAt(i)).setDecors(decors == null ? null : getDecorSlice(firstMonth + i));
+        }
+    }
+
+    public DayDecor getDecors() {
+        return mDecors;
+    }
+
+    /**
+     * select specified calendar day.
+     * @param calendarDay calendarDay; null to clear selection.
+     */
+    public void setSelection(CalendarDay calendarDay) {
+        mSelectionModel.setSelection(calendarDay);
+    }
+
+    /**
+     * set the selection model shared by all months, pass the same model to other views (e.g.
+     * {@link MonthViewPager}) to keep their selection in sync.
+     * @param model SelectionModel, not null
+     */
+    public void setSelectionModel(SelectionModel model) {
+        mSelectionModel = model;
+        for (int i = 0; i < getChildCount(); i++) {
+            ((MonthView) getChildAt(i)).setSelectionModel(model);
+        }
+        for (MonthView monthView : scrapViews) {
+            monthView.setSelectionModel(model);
+        }
+    }
+
+    public SelectionModel getSelectionModel() {
+        return mSelectionModel;
+    }
+
+    /**
+     * set adapter binding per-month data to months. A month is bound when it is attached,
+     * including prefetched months.
+     * @param adapter adapter, null to remove
+     */
+    public void setAdapter(MonthPagerAdapter adapter) {
+        if(mAdapter == adapter)
+            return;
+        if(mAdapter != null) {
+            mAdapter.unregisterObserver(mAdapterObserver);
+        }
+        mAdapter = adapter;
+        mBoundIds.clear();
+        if(mAdapter != null) {
+            if(mAdapterObserver == null) {
+                mAdapterObserver = new AdapterChangeObserver();
+            }
+            mAdapter.registerObserver(mAdapterObserver);
+            mAdapterObserver.onChanged();
+        }
+    }
+
+    public MonthPagerAdapter getAdapter() {
+        return mAdapter;
+    }
+
+    public void setOnDayClickListener(MonthView.OnDayClickListener onDayClickListener) {
+        mOnDayClickListener = onDayClickListener;
+        for (int i = 0; i < getChildCount(); i++) {
+            ((MonthView) getChildAt(i)).setOnDayClickListener(onDayClickListener);
+        }
+        for (MonthView monthView : scrapViews) {
+            monthView.setOnDayClickListener(onDayClickListener);
+        }
+    }
+
+    /**
+     * add a listener to listen first visible month changed event
+     * @param listener listener
+     */
+    public void addOnMonthChangeListener(OnMonthChangeListener listener) {
+        if (mChangeListeners == null) {
+            mChangeListeners = new ArrayList<>();
+        }
+        mChangeListeners.add(listener);
+    }
+
+    public void removeOnMonthChangeListener(OnMonthChangeListener listener) {
+        if (mChangeListeners != null) {
+            mChangeListeners.remove(listener);
+        }
+    }
+
+    public interface OnMonthChangeListener {
+        /**
+         * first visible month has changed
+         * @param monthListView MonthListView
+         * @param calendarMonth first visible month
+         */
+        void onMonthChange(MonthListView monthListView, CalendarMonth calendarMonth);
+    }
+}
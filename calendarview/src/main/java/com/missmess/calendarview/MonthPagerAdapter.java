@@ -0,0 +1,69 @@
+package com.missmess.calendarview;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Provides per-month data to pages of a {@link MonthViewPager}, like an adapter of RecyclerView.
+ * A page is bound when it is attached to a month, so months within the offscreen page limit of the
+ * pager are bound ahead, while farther months (decors, badges) are not, and months only passed
+ * by a fling are bound once it settles. Call {@link #notifyMonthChanged(CalendarMonth)} to rebind
+ * a single month.
+ */
+public abstract class MonthPagerAdapter {
+    private final List<AdapterObserver> mObservers = new ArrayList<>();
+
+    /**
+     * bind data of a month to a page, e.g. set decors of this month by
+     * {@link MonthView#setDecors(DayDecor)}. It is called when a page is attached to a month,
+     * not again while the page stays on that month.
+     * @param monthView page
+     * @param calendarMonth month the page shows
+     */
+    public abstract void onBindMonth(MonthView monthView, CalendarMonth calendarMonth);
+
+    /**
+     * stable id of a month, pages bound to the id are rebound by {@link #notifyMonthChanged(CalendarMonth)}.
+     * @param calendarMonth month
+     * @return id, default is the month index
+     */
+    public long getMonthId(CalendarMonth calendarMonth) {
+        return CalendarUtils.getMonthIndex(calendarMonth);
+    }
+
+    /**
+     * data of a month changed, pages attached to it are rebound.
+     * @param calendarMonth month
+     */
+    public final void notifyMonthChanged(CalendarMonth calendarMonth) {
+        long id = getMonthId(calendarMonth);
+        for (int i = mObservers.size() - 1; i >= 0; i--) {
+            mObservers.get(i).onMonthChanged(id);
+        }
+    }
+
+    /**
+     * data of all months changed, all pages are rebound.
+     */
+    public final void notifyDataSetChanged() {
+        for (int i = mObservers.size() - 1; i >= 0; i--) {
+            mObservers.get(i).onChanged();
+        }
+    }
+
+    void registerObserver(AdapterObserver observer) {
+        if(!mObservers.contains(observer)) {
+            mObservers.add(observer);
+        }
+    }
+
+    void unregisterObserver(AdapterObserver observer) {
+        mObservers.remove(observer);
+    }
+
+    interface AdapterObserver {
+        void onMonthChanged(long monthId);
+
+        void onChanged();
+    }
+}
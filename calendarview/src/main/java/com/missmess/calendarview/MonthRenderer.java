@@ -0,0 +1,716 @@
+package com.missmess.calendarview;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Paint.Align;
+import android.graphics.Paint.Style;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.ColorInt;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Locale;
+
+/**
+ * Draws a month (title, week labels and days) onto any Canvas within a bounds rect. It holds
+ * the month, decor, selection and appearance resolved from a {@link MonthViewStyle}, and needs no
+ * View or Context when drawing, so one host can draw many months cheaply.
+ *
+ * <p>Bounds: left and right are the horizontal extent of the day grid, top is the top of month
+ * title. Height is decided by the renderer, see {@link #getShouldHeight()}.</p>
+ */
+public class MonthRenderer {
+    static final int NUM_DAYS = 7;
+    static final int DEFAULT_NUM_ROWS = 6;
+    private static final String DAY_OF_WEEK_FORMAT = "EEEEE";
+    private static final String MONTH_TITLE_FORMAT = "LLLL yyyy";
+
+    final MonthViewStyle style;
+
+    // appearance
+    int dayCircleRadius;
+    int spaceBetweenWeekAndDay = 0;
+    int dayTextSize;
+    int dayRowHeight;
+    int monthHeaderHeight;
+    int weekLabelTextSize;
+    int spaceBetweenWeekAndDivider;
+    int weekLabelOffset = 0;
+    int monthLabelOffset = 0;
+    int decorTextColor;
+    int dayTextColor;
+    boolean showMonthTitle;
+    boolean showWeekLabel;
+    boolean showWeekDivider;
+    boolean showOtherMonth;
+
+    // month
+    int year;
+    int month;
+    int weekStart = Calendar.SUNDAY;
+    // epoch day of the first day of month
+    int firstEpochDay;
+    int dayOfWeekStart;
+    int numCells;
+    int numRows = DEFAULT_NUM_ROWS;
+    boolean weekMode;
+    // epoch day of the first day of showing week, used in week mode
+    int weekFirstEpochDay;
+    private String monthTitle;
+
+    // decor and selection
+    DayDecor decors;
+    int todayKey = MonthView.NO_DAY;
+    int selectionMode = MonthView.SELECTION_SINGLE;
+    // selected day and range, may be shared with other renderers
+    SelectionModel selection = new SelectionModel();
+    MultiDaySelection multiSelection;
+    DayHeatmap heatmap;
+
+    final Paint monthTitlePaint;
+    final Paint weekLabelPaint;
+    final Paint dayNumPaint;
+    final Paint dayBgPaint;
+    private final DayDecor.Style todayStyle;
+    private final DayDecor.Style selectionStyle;
+    private final DayDecor.Style normalStyle;
+    private final DayDecor.Style otherMonthStyle;
+    private final Rect drawRect = new Rect();
+    private final RectF rangeRect = new RectF();
+
+    // localized labels, rebuilt when default locale or week start changes
+    private Locale labelLocale;
+    private int labelWeekStart;
+    private String[] dayLabels;
+    private String[] weekLabels;
+
+    public MonthRenderer(MonthViewStyle style) {
+        this.style = style;
+        decorTextColor = style.decorTextColor;
+        dayTextColor = style.dayTextColor;
+        dayTextSize = style.dayTextSize;
+        dayCircleRadius = style.dayCircleRadius;
+        dayRowHeight = style.dayRowHeight;
+        monthHeaderHeight = style.monthHeaderHeight;
+        weekLabelTextSize = style.weekLabelTextSize;
+        spaceBetweenWeekAndDivider = style.spaceBetweenWeekAndDivider;
+        showMonthTitle = style.showMonthTitle;
+        showWeekLabel = style.showWeekLabel;
+        showWeekDivider = style.showWeekDivider;
+        selectionMode = style.selectionMode;
+
+        todayStyle = new DayDecor.Style();
+        todayStyle.setBold(true);
+        todayStyle.setTextColor(style.todayTextColor);
+
+        selectionStyle = new DayDecor.Style();
+        selectionStyle.setPureColorBgShape(DayDecor.Style.CIRCLE);
+        selectionStyle.setPureColorBg(style.selectedCircleColor);
+
+        normalStyle = new DayDecor.Style();
+
+        otherMonthStyle = new DayDecor.Style();
+
+        monthTitlePaint = new Paint();
+        monthTitlePaint.setFakeBoldText(true);
+        monthTitlePaint.setAntiAlias(true);
+        monthTitlePaint.setTextSize(style.monthTextSize);
+        monthTitlePaint.setTypeface(style.monthTitleTypeface);
+        monthTitlePaint.setColor(style.monthTitleColor);
+        monthTitlePaint.setTextAlign(Align.CENTER);
+        monthTitlePaint.setStyle(Style.FILL);
+
+        dayBgPaint = new Paint();
+        dayBgPaint.setAntiAlias(true);
+        dayBgPaint.setColor(style.selectedCircleColor);
+        dayBgPaint.setStyle(Style.FILL);
+
+        weekLabelPaint = new Paint();
+        weekLabelPaint.setAntiAlias(true);
+        weekLabelPaint.setTextSize(weekLabelTextSize);
+        weekLabelPaint.setColor(style.weekLabelTextColor);
+        weekLabelPaint.setTypeface(style.weekLabelTypeface);
+        weekLabelPaint.setStyle(Style.FILL);
+        weekLabelPaint.setTextAlign(Align.CENTER);
+        weekLabelPaint.setFakeBoldText(true);
+
+        dayNumPaint = new Paint();
+        dayNumPaint.setAntiAlias(true);
+        dayNumPaint.setTextSize(dayTextSize);
+        dayNumPaint.setStyle(Style.FILL);
+        dayNumPaint.setTextAlign(Align.CENTER);
+        dayNumPaint.setColor(dayTextColor);
+        dayNumPaint.setFakeBoldText(false);
+    }
+
+    /**
+     * set the month to draw.
+     * @param year year
+     * @param month month, 1 - 12
+     */
+    public void setMonth(int year, int month) {
+        if(year != this.year || month != this.month) {
+            monthTitle = null;
+        }
+        this.year = year;
+        this.month = month;
+
+        firstEpochDay = CalendarUtils.toEpochDay(year, month, 1);
+        dayOfWeekStart = CalendarUtils.getDayOfWeek(firstEpochDay);
+        numCells = CalendarUtils.getDaysInMonth(month - 1, year);
+        numRows = calculateNumRows();
+    }
+
+    public CalendarMonth getMonth() {
+        return new CalendarMonth(year, month);
+    }
+
+    /**
+     * @param firstDayOfWeek first day of week, e.g. {@link Calendar#SUNDAY}
+     */
+    public void setWeekStart(int firstDayOfWeek) {
+        weekStart = firstDayOfWeek;
+        numRows = calculateNumRows();
+    }
+
+    /**
+     * draw a single week row instead of a month.
+     * @param weekMode true - draw a week
+     */
+    public void setWeekMode(boolean weekMode) {
+        this.weekMode = weekMode;
+        numRows = calculateNumRows();
+    }
+
+    /**
+     * set the week to draw in week mode by epoch day of its first day. month of the week's middle
+     * day (e.g. thursday when week starts on monday) becomes the current month.
+     */
+    void setWeekStartKey(int weekStartKey) {
+        weekFirstEpochDay = weekStartKey;
+        if(weekMode) {
+            // the last week may end beyond MAX_YEAR, its middle day is clamped
+            int middleDay = Math.min(Math.max(weekStartKey + 3, CalendarUtils.MIN_EPOCH_DAY), CalendarUtils.MAX_EPOCH_DAY);
+            CalendarDay middle = CalendarUtils.fromEpochDay(middleDay);
+            setMonth(middle.getYear(), middle.getMonth());
+        }
+    }
+
+    // epoch day of the first day of the week containing a day
+    int getWeekStartOf(int epochDay) {
+        return epochDay - (CalendarUtils.getDayOfWeek(epochDay) - weekStart + NUM_DAYS) % NUM_DAYS;
+    }
+
+    /**
+     * set month title, e.g. a localized string formatted by host. A default title is used if not set.
+     * @param title title; null to use default
+     */
+    public void setMonthTitle(String title) {
+        monthTitle = title;
+    }
+
+    public String getMonthTitle() {
+        if(monthTitle == null) {
+            SimpleDateFormat format = new SimpleDateFormat(MONTH_TITLE_FORMAT, Locale.getDefault());
+            Calendar calendar = Calendar.getInstance();
+            calendar.clear();
+            calendar.set(year, month - 1, 1);
+            monthTitle = format.format(calendar.getTime());
+        }
+        return monthTitle;
+    }
+
+    public int getMonthTitleWidth() {
+        return (int) monthTitlePaint.measureText(getMonthTitle());
+    }
+
+    public void setDecors(DayDecor decors) {
+        this.decors = decors;
+    }
+
+    /**
+     * shade days by values of a heatmap, days whose decor has a background are not shaded.
+     * @param heatmap heatmap, null to clear
+     */
+    public void setHeatmap(DayHeatmap heatmap) {
+        this.heatmap = heatmap;
+    }
+
+    public void setToday(CalendarDay today) {
+        todayKey = today == null ? MonthView.NO_DAY : CalendarUtils.toEpochDay(today);
+    }
+
+    public void setSelectionMode(int mode) {
+        selectionMode = mode;
+    }
+
+    public void setSelectedDay(CalendarDay calendarDay) {
+        selection.setSelection(calendarDay);
+    }
+
+    public void setSelectionModel(SelectionModel selection) {
+        this.selection = selection;
+    }
+
+    public SelectionModel getSelectionModel() {
+        return selection;
+    }
+
+    public void setMultiSelection(MultiDaySelection selection) {
+        multiSelection = selection;
+    }
+
+    public void setSelectionStyle(DayDecor.Style style) {
+        selectionStyle.combine(style);
+    }
+
+    public void setOtherMonthTextColor(@ColorInt int color) {
+        otherMonthStyle.setTextColor(color);
+    }
+
+    public void setShowOtherMonth(boolean show) {
+        showOtherMonth = show;
+    }
+
+    public void setShowMonthTitle(boolean show) {
+        showMonthTitle = show;
+    }
+
+    public void setShowWeekLabel(boolean show) {
+        showWeekLabel = show;
+    }
+
+    public void setDayTextColor(@ColorInt int color) {
+        dayTextColor = color;
+    }
+
+    public void setDayTextSize(int px) {
+        dayTextSize = px;
+    }
+
+    public void setDayCircleRadius(int px) {
+        dayCircleRadius = px;
+    }
+
+    public void setDayRowHeight(int px) {
+        dayRowHeight = px;
+    }
+
+    /**
+     * set day text color, text size, circle radius and row height between two states, used by
+     * transitions every frame. Only drawing state changes, a hosting view keeps its size.
+     * @param from state at fraction 0, {text color, text size, circle radius, row height}
+     * @param to state at fraction 1
+     * @param fraction fraction
+     */
+    void interpolateDayState(int[] from, int[] to, float fraction) {
+        dayTextColor = interpolateColor(from[0], to[0], fraction);
+        dayTextSize = interpolate(from[1], to[1], fraction);
+        dayCircleRadius = interpolate(from[2], to[2], fraction);
+        dayRowHeight = interpolate(from[3], to[3], fraction);
+    }
+
+    /**
+     * @return current day state, in the order of {@link #interpolateDayState(int[], int[], float)}
+     */
+    int[] getDayState() {
+        return new int[] {dayTextColor, dayTextSize, dayCircleRadius, dayRowHeight};
+    }
+
+    private static int interpolate(int from, int to, float fraction) {
+        return Math.round(from + (to - from) * fraction);
+    }
+
+    // interpolate each channel of argb colors
+    private static int interpolateColor(int from, int to, float fraction) {
+        int color = 0;
+        for(int shift = 0; shift < 32; shift += 8) {
+            color |= interpolate((from >>> shift) & 0xff, (to >>> shift) & 0xff, fraction) << shift;
+        }
+        return color;
+    }
+
+    void setMonthLabelOffset(int offset) {
+        monthLabelOffset = offset;
+    }
+
+    void setWeekLabelOffset(int offset) {
+        weekLabelOffset = offset;
+    }
+
+    public int getMonthHeaderHeight() {
+        return showMonthTitle ? monthHeaderHeight : 0;
+    }
+
+    public int getWeekLabelHeight() {
+        return showWeekLabel ? weekLabelTextSize + spaceBetweenWeekAndDivider : 0;
+    }
+
+    // top of day rows, relative to top of bounds
+    int getDaysTop() {
+        return spaceBetweenWeekAndDay + getMonthHeaderHeight() + getWeekLabelHeight();
+    }
+
+    public int getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * @return height needed by current month
+     */
+    public int getShouldHeight() {
+        return getHeightWithRows(numRows);
+    }
+
+    /**
+     * @return height needed by a month with most rows
+     */
+    public int getMaxHeight() {
+        return getHeightWithRows(DEFAULT_NUM_ROWS);
+    }
+
+    int getHeightWithRows(int rows) {
+        if(weekMode)
+            rows = 1;
+        return getDaysTop() + dayRowHeight * rows;
+    }
+
+    private int calculateNumRows() {
+        if(weekMode)
+            return 1;
+        int offset = findDayOffset();
+        int dividend = (offset + numCells) / NUM_DAYS;
+        int remainder = (offset + numCells) % NUM_DAYS;
+        return (dividend + (remainder > 0 ? 1 : 0));
+    }
+
+    /**
+     * week rows of a month, same as {@link #getNumRows()} after {@link #setMonth(int, int)} but
+     * without touching any renderer, safe to call from any thread.
+     * @param year year
+     * @param month month, 1 - 12
+     * @param weekStart first day of week
+     * @return rows
+     */
+    static int calculateNumRows(int year, int month, int weekStart) {
+        int dayOfWeekStart = CalendarUtils.getDayOfWeek(CalendarUtils.toEpochDay(year, month, 1));
+        int offset = (dayOfWeekStart < weekStart ? (dayOfWeekStart + NUM_DAYS) : dayOfWeekStart) - weekStart;
+        int cells = offset + CalendarUtils.getDaysInMonth(month - 1, year);
+        return (cells + NUM_DAYS - 1) / NUM_DAYS;
+    }
+
+    int findDayOffset() {
+        return (dayOfWeekStart < weekStart ? (dayOfWeekStart + NUM_DAYS) : dayOfWeekStart) - weekStart;
+    }
+
+    // epoch day of the first cell (top left) of the grid
+    int getFirstCellEpochDay() {
+        return weekMode ? weekFirstEpochDay : firstEpochDay - findDayOffset();
+    }
+
+    // whether a day of this month is drawn
+    boolean isDayVisible(int epochDay) {
+        if(!CalendarUtils.isInRange(epochDay))
+            return false;
+        if(!weekMode && !showOtherMonth)
+            return epochDay >= firstEpochDay && epochDay < firstEpochDay + numCells;
+        int cell = epochDay - getFirstCellEpochDay();
+        return cell >= 0 && cell < numRows * NUM_DAYS;
+    }
+
+    // row of a day in grid, -1 if not visible
+    int getRowOf(int epochDay) {
+        if(epochDay == MonthView.NO_DAY || !isDayVisible(epochDay))
+            return -1;
+        return (epochDay - getFirstCellEpochDay()) / NUM_DAYS;
+    }
+
+    /**
+     * get the visible columns of a week row covered by a range.
+     * @return start column in high 32 bits, end column in low 32 bits; -1 if not covered.
+     */
+    long getRowSpan(int row, int start, int end) {
+        if(start == MonthView.NO_DAY)
+            return -1;
+        if(end == MonthView.NO_DAY)
+            end = start;
+        int rowFirst = getFirstCellEpochDay() + row * NUM_DAYS;
+        int first = rowFirst;
+        int last = rowFirst + NUM_DAYS - 1;
+        if(!weekMode && !showOtherMonth) {
+            first = Math.max(first, firstEpochDay);
+            last = Math.min(last, firstEpochDay + numCells - 1);
+        }
+        first = Math.max(first, start);
+        last = Math.min(last, end);
+        if(first > last)
+            return -1;
+        return ((long) (first - rowFirst) << 32) | (last - rowFirst);
+    }
+
+    /**
+     * find the day drawn at a location.
+     * @param bounds bounds used to draw
+     * @param x x
+     * @param y y
+     * @return epoch day; {@link MonthView#NO_DAY} if no day there
+     */
+    int getDayAt(Rect bounds, float x, float y) {
+        if(x < bounds.left || x > bounds.right)
+            return MonthView.NO_DAY;
+        float yDayOffset = y - bounds.top - getDaysTop();
+        if(yDayOffset < 0)
+            return MonthView.NO_DAY;
+        int row = (int) yDayOffset / dayRowHeight;
+        if(row >= numRows)
+            return MonthView.NO_DAY;
+        int halfDay = bounds.width() / (2 * NUM_DAYS);
+        int col = Math.min((int) ((x - bounds.left) / (2 * halfDay)), NUM_DAYS - 1);
+        int epochDay = getFirstCellEpochDay() + row * NUM_DAYS + col;
+        return isDayVisible(epochDay) ? epochDay : MonthView.NO_DAY;
+    }
+
+    boolean isInRange(int epochDay) {
+        int rangeStart = selection.rangeStart;
+        int rangeEnd = selection.rangeEnd;
+        if(rangeStart == MonthView.NO_DAY)
+            return false;
+        return epochDay >= rangeStart && epochDay <= (rangeEnd == MonthView.NO_DAY ? rangeStart : rangeEnd);
+    }
+
+    /**
+     * draw title, week labels and days.
+     * @param canvas canvas
+     * @param bounds bounds, see class doc
+     */
+    public void draw(Canvas canvas, Rect bounds) {
+        drawHeader(canvas, bounds);
+        drawDays(canvas, bounds);
+    }
+
+    /**
+     * draw month title and week labels if shown.
+     */
+    public void drawHeader(Canvas canvas, Rect bounds) {
+        if(showMonthTitle) {
+            drawMonthTitle(canvas, bounds);
+        }
+        if(showWeekLabel) {
+            drawWeekLabels(canvas, bounds);
+        }
+    }
+
+    /**
+     * draw day rows, including range selection background.
+     */
+    public void drawDays(Canvas canvas, Rect bounds) {
+        ensureLabels();
+        if(selectionMode == MonthView.SELECTION_RANGE) {
+            drawRangeSpans(canvas, bounds);
+        }
+        drawMonthDays(canvas, bounds);
+    }
+
+    // baseline of month title, relative to top of bounds
+    int getMonthTitleBaseline() {
+        return getMonthHeaderHeight() / 2 + (style.monthTextSize / 3) + monthLabelOffset;
+    }
+
+    private void drawMonthTitle(Canvas canvas, Rect bounds) {
+        canvas.drawText(getMonthTitle(), bounds.centerX(), bounds.top + getMonthTitleBaseline(), monthTitlePaint);
+    }
+
+    private void drawWeekLabels(Canvas canvas, Rect bounds) {
+        ensureLabels();
+        int headerHeight = getMonthHeaderHeight();
+        int y = bounds.top + headerHeight + weekLabelTextSize + weekLabelOffset;
+        int dayWidthHalf = bounds.width() / (NUM_DAYS * 2);
+
+        for (int i = 0; i < NUM_DAYS; i++) {
+            int x = (2 * i + 1) * dayWidthHalf + bounds.left;
+            canvas.drawText(weekLabels[i], x, y, weekLabelPaint);
+        }
+
+        if(showWeekDivider) {
+            //draw divider under week label
+            int yLine = bounds.top + headerHeight + getWeekLabelHeight() + weekLabelOffset;
+            canvas.drawLine(bounds.left, yLine - 1, bounds.right, yLine, weekLabelPaint);
+        }
+    }
+
+    private void drawMonthDays(Canvas canvas, Rect bounds) {
+        int daysTop = bounds.top + getDaysTop();
+        int halfDay = bounds.width() / (2 * NUM_DAYS);
+        int firstCellDay = getFirstCellEpochDay();
+
+        // visible cells of the grid
+        int startCell = 0;
+        int endCell = numRows * NUM_DAYS;
+        if(!weekMode && !showOtherMonth) {
+            startCell = findDayOffset();
+            endCell = startCell + numCells;
+        }
+        // cells out of [MIN_YEAR, MAX_YEAR] at range ends are left blank
+        startCell = Math.max(startCell, CalendarUtils.MIN_EPOCH_DAY - firstCellDay);
+        endCell = Math.min(endCell, CalendarUtils.MAX_EPOCH_DAY - firstCellDay + 1);
+        // date of the first visible cell, then increase day by day
+        CalendarDay startDay = CalendarUtils.fromEpochDay(firstCellDay + startCell);
+        int year = startDay.getYear();
+        int month = startDay.getMonth();
+        int day = startDay.getDay();
+        int daysInMonth = CalendarUtils.getDaysInMonth(month - 1, year);
+        for(int i = startCell; i < endCell; i++) {
+            int epochDay = firstCellDay + i;
+            int dayLeft = (i % NUM_DAYS) * halfDay * 2 + bounds.left;
+            int dayTop = daysTop + (i / NUM_DAYS) * dayRowHeight;
+            int x = halfDay + dayLeft;
+            int y = (dayRowHeight + dayTextSize) / 2 + dayTop;
+            boolean otherMonth = !weekMode && month != this.month;
+
+            boolean selected;
+            if(selectionMode == MonthView.SELECTION_RANGE) {
+                selected = isInRange(epochDay);
+            } else if(selectionMode == MonthView.SELECTION_MULTIPLE) {
+                selected = multiSelection != null && multiSelection.isSelected(epochDay);
+            } else {
+                selected = epochDay == selection.selectedKey;
+            }
+
+            // default color and size
+            dayNumPaint.setColor(decorTextColor);
+            dayNumPaint.setTextSize(dayTextSize);
+            // set style
+            DayDecor.Style style;
+            DayDecor.Style decorStyle = decors == null ? null : decors.getDecorStyle(epochDay);
+            if(otherMonth) { // other month
+                style = otherMonthStyle;
+            } else if(decorStyle != null) { // exist decor
+                style = decorStyle;
+            } else if (epochDay == todayKey) { // today
+                style = todayStyle;
+            } else if (selected) { // today
+                style = selectionStyle;
+            } else { // normal
+                style = normalStyle;
+                style.setTextColor(dayTextColor);
+            }
+            style.styledTextPaint(dayNumPaint);
+            // get text height
+            String dayStr = dayLabels[day - 1];
+            dayNumPaint.getTextBounds(dayStr, 0, dayStr.length(), drawRect);
+            int textHeight = drawRect.height();
+
+            // when selected, background always use selection style,
+            // whenever it used be.
+            if(selected) {
+                style = selectionStyle;
+            }
+            int shade = heatmap == null || otherMonth ? 0 : heatmap.getColor(epochDay);
+            // draw background
+            if(selected && selectionMode == MonthView.SELECTION_RANGE) {
+                // range background has been drawn by row spans
+            } else if(style.isCircleBg()) {
+                dayBgPaint.setColor(style.getPureColorBg());
+                canvas.drawCircle(x, y - textHeight / 2, dayCircleRadius, dayBgPaint);
+            } else if(style.isRectBg()) {
+                dayBgPaint.setColor(style.getPureColorBg());
+                canvas.drawRect(dayLeft, dayTop, dayLeft + 2 * halfDay, dayTop + dayRowHeight, dayBgPaint);
+            } else if(style.isDrawableBg()) {
+                Drawable drawable = style.getDrawableBg();
+                int dHeight = drawable.getIntrinsicHeight();
+                int dWidth = drawable.getIntrinsicWidth();
+
+                int left, right, top, bottom;
+                if(dWidth <= 0) { // fill
+                    left = dayLeft;
+                    right = dayLeft + 2 * halfDay;
+                } else { // remain original size
+                    left = x - dWidth / 2;
+                    right = x + dWidth / 2;
+                }
+                if(dHeight <= 0) {
+                    top = dayTop;
+                    bottom = dayTop + dayRowHeight;
+                } else {
+                    top = y - textHeight / 2 - dHeight / 2;
+                    bottom = y - textHeight / 2 + dHeight / 2;
+                }
+                drawable.setBounds(left, top, right, bottom);
+                drawable.draw(canvas);
+            } else if(shade != 0) { // no background of style, shade by heatmap
+                dayBgPaint.setColor(shade);
+                if(heatmap.getShape() == DayDecor.Style.RECTANGLE) {
+                    canvas.drawRect(dayLeft, dayTop, dayLeft + 2 * halfDay, dayTop + dayRowHeight, dayBgPaint);
+                } else {
+                    canvas.drawCircle(x, y - textHeight / 2, dayCircleRadius, dayBgPaint);
+                }
+            }
+            canvas.drawText(dayStr, x, y, dayNumPaint);
+
+            // goto next day
+            if(++day > daysInMonth) {
+                day = 1;
+                if(++month > 12) {
+                    month = 1;
+                    year++;
+                }
+                daysInMonth = CalendarUtils.getDaysInMonth(month - 1, year);
+            }
+        }
+    }
+
+    /**
+     * draw range selection, one rounded rect per week row.
+     */
+    private void drawRangeSpans(Canvas canvas, Rect bounds) {
+        int dayTop = bounds.top + getDaysTop();
+        int halfDayWidth = bounds.width() / (2 * NUM_DAYS);
+        int y = (dayRowHeight + dayTextSize) / 2 + dayTop;
+        // use a digit to obtain the same center as day circles
+        dayNumPaint.setTextSize(dayTextSize);
+        dayNumPaint.getTextBounds("8", 0, 1, drawRect);
+        int centerY = y - drawRect.height() / 2;
+        int inset = halfDayWidth - dayCircleRadius;
+        dayBgPaint.setColor(selectionStyle.getPureColorBg());
+
+        for(int row = 0; row < numRows; row++) {
+            long span = getRowSpan(row, selection.rangeStart, selection.rangeEnd);
+            if(span != -1) {
+                int startCol = (int) (span >> 32);
+                int endCol = (int) span;
+                float left = bounds.left + startCol * 2 * halfDayWidth + inset;
+                float right = bounds.left + (endCol + 1) * 2 * halfDayWidth - inset;
+                int rowCenter = centerY + row * dayRowHeight;
+                rangeRect.set(left, rowCenter - dayCircleRadius, right, rowCenter + dayCircleRadius);
+                canvas.drawRoundRect(rangeRect, dayCircleRadius, dayCircleRadius, dayBgPaint);
+            }
+        }
+    }
+
+    // day numbers and week labels are formatted once per locale instead of every frame
+    private void ensureLabels() {
+        Locale locale = Locale.getDefault();
+        if(locale.equals(labelLocale) && labelWeekStart == weekStart)
+            return;
+        if(!locale.equals(labelLocale)) {
+            dayLabels = new String[31];
+            for(int i = 0; i < 31; i++) {
+                dayLabels[i] = String.format(locale, "%d", i + 1);
+            }
+        }
+        SimpleDateFormat dayOfWeekFormatter = new SimpleDateFormat(DAY_OF_WEEK_FORMAT, locale);
+        Calendar cal = Calendar.getInstance();
+        weekLabels = new String[NUM_DAYS];
+        for (int i = 0; i < NUM_DAYS; i++) {
+            int dayOfWeek = (i + weekStart) % NUM_DAYS;
+            if (dayOfWeek == 0)
+                dayOfWeek = NUM_DAYS;
+            cal.set(Calendar.DAY_OF_WEEK, dayOfWeek);
+            weekLabels[i] = dayOfWeekFormatter.format(cal.getTime());
+        }
+        labelLocale = locale;
+        labelWeekStart = weekStart;
+    }
+}
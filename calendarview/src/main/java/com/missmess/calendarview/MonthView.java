@@ -1,24 +1,15 @@
 package com.missmess.calendarview;
 
 import android.content.Context;
-import android.content.res.Resources;
-import android.content.res.TypedArray;
 import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.Paint.Align;
-import android.graphics.Paint.Style;
 import android.graphics.Rect;
-import android.graphics.Typeface;
-import android.graphics.drawable.Drawable;
 import android.support.annotation.ColorInt;
 import android.text.format.DateUtils;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
 
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
-import java.util.Locale;
 
 /**
  * MonthView can show a month, with week label in calendar style.
@@ -27,137 +18,95 @@ import java.util.Locale;
  * 2.decor days as you like.
  * 3.provide a lot of attribute, you can customize your own style.
  * ...
+ * Drawing is done by a {@link MonthRenderer}, MonthView hosts it and handles touch.
  */
 public class MonthView extends View {
-    private final int DEFAULT_NUM_ROWS = 6;
-    protected int dayCircleRadius;
-    protected int SPACE_BETWEEN_WEEK_AND_DAY = 0;
-    protected int normalDayTextSize;
-    protected int WEEK_LABEL_TEXT_SIZE;
-    protected int MONTH_HEADER_HEIGHT;
-    protected int WEEK_LABEL_HEIGHT;
-    protected int MONTH_LABEL_TEXT_SIZE;
-    protected int mSelectedCircleColor;
-    protected int spaceBetweenWeekAndDivider;
-    protected int monthHeaderSizeCache;
-    protected int weekLabelOffset = 0;
-    protected int monthLabelOffset = 0;
-    private int mOtherMonthTextColor;
+    /**
+     * select a single day on click.
+     */
+    public static final int SELECTION_SINGLE = 0;
+    /**
+     * select a range of days: tap start, tap end, or drag the edges.
+     */
+    public static final int SELECTION_RANGE = 1;
+    /**
+     * toggle any number of days, stored in a {@link MultiDaySelection}.
+     */
+    public static final int SELECTION_MULTIPLE = 2;
+    // means no day, used as empty key of range selection
+    static final int NO_DAY = Integer.MIN_VALUE;
 
     protected int mPadding = 0;
-
-    private String mDayOfWeekTypeface;
-    private String mMonthTitleTypeface;
-
-    protected Paint mWeekLabelPaint;
-    protected Paint mDayNumPaint;
-    protected Paint mMonthTitlePaint;
-    protected Paint mDayBgPaint;
-
-    protected int decorTextColor;
-    protected int mMonthTextColor;
-    protected int mWeekColor;
-    protected int normalDayTextColor;
-    protected int todayTextColor;
-
-    protected int mWeekStart = Calendar.SUNDAY;
-    protected int mNumDays = 7;
-    protected int mNumCells = mNumDays;
-    private int mDayOfWeekStart = 0;
-    private int mMonth = 0;
-    protected int dayRowHeight = 0;
     protected int mWidth;
-    private int mYear = 0;
     protected CalendarDay today;
 
-    private int mNumRows = DEFAULT_NUM_ROWS;
-    protected boolean mShowMonthTitle;
-    protected boolean mShowWeekLabel;
-    private boolean mShowWeekDivider;
-    protected boolean mShowOtherMonth;
-
-    private static final String DAY_OF_WEEK_FORMAT = "EEEEE";
     private OnDayClickListener mOnDayClickListener;
     private OnMonthTitleClickListener mOnMonthClicker;
-    private CalendarDay selectedDay;
     private float downX;
     private float downY;
-    private TypedArray mTypeArray;
+    private MonthViewStyle mStyle;
+    private MonthRenderer mRenderer;
     private boolean isCopy;
-    private DayDecor mDecors;
-    private int halfDayWidth;
-    private DayDecor.Style todayStyle;
-    private DayDecor.Style selectionStyle;
-    private DayDecor.Style normalStyle;
-    private DayDecor.Style otherMonthStyle;
-    private Rect drawRect;
-    private CalendarDay leftEdge;
-    private CalendarDay rightEdge;
+    // bounds passed to renderer
+    private Rect mBounds;
+    private float mCollapseProgress = 0f;
+    // edges of clickable days, as epoch days
+    private int leftEdgeKey = NO_DAY;
+    private int rightEdgeKey = NO_DAY;
+    private OnRangeSelectListener mOnRangeSelectListener;
+    // 0 - not dragging; 1 - dragging range start; 2 - dragging range end
+    private int draggingEdge;
+    private boolean edgeDragged;
+    private MultiDaySelection mMultiSelection;
+    private MultiSelectionObserver multiSelectionObserver;
+    private SelectionObserver selectionObserver;
+    // measured as tall as a month with most rows, so changing month never changes size
+    private boolean mMeasureMaxHeight;
+    // days are drawn into it at top left while transiting, empty if not transiting
+    private final Rect mTransitBounds = new Rect();
+    // day state before the first transit frame, restored by clearTransitFrame()
+    private int[] mStateBeforeTransit;
 
     public MonthView(Context context) {
-        this(context, null);
+        this(context, (AttributeSet) null);
     }
 
     public MonthView(Context context, AttributeSet attrs) {
         super(context, attrs);
-        mTypeArray = context.obtainStyledAttributes(attrs, R.styleable.MonthView);
+        init(MonthViewStyle.obtain(context, attrs));
+    }
 
-        init(context, mTypeArray);
+    /**
+     * create a MonthView with a resolved style, skip resolving attributes.
+     * @param context context
+     * @param style style shared with other MonthViews
+     */
+    public MonthView(Context context, MonthViewStyle style) {
+        super(context);
+        init(style);
     }
 
-    private MonthView(Context context, TypedArray typedArray, Void copy) {
+    private MonthView(Context context, MonthViewStyle style, Void copy) {
         super(context);
         isCopy = true;
-        init(context, typedArray);
+        init(style);
     }
 
-    private void init(Context context, TypedArray typedArray) {
-        Resources resources = context.getResources();
+    private void init(MonthViewStyle style) {
+        mStyle = style;
+        mRenderer = new MonthRenderer(style);
         today = new CalendarDay(Calendar.getInstance());
+        mRenderer.setToday(today);
+        mRenderer.setWeekStart(Calendar.getInstance().getFirstDayOfWeek());
 
-        mDayOfWeekTypeface = resources.getString(R.string.sans_serif);
-        mMonthTitleTypeface = resources.getString(R.string.sans_serif);
-        decorTextColor = resources.getColor(R.color.day_label_decor_text_color);
-        mMonthTextColor = typedArray.getColor(R.styleable.MonthView_monthTitleColor, resources.getColor(R.color.month_title_color));
-        mWeekColor = typedArray.getColor(R.styleable.MonthView_weekLabelTextColor, resources.getColor(R.color.week_label_text_color));
-        normalDayTextColor = typedArray.getColor(R.styleable.MonthView_dayTextColor, resources.getColor(R.color.day_label_text_color));
-        todayTextColor = resources.getColor(R.color.today_text_color);
-        mSelectedCircleColor = typedArray.getColor(R.styleable.MonthView_selectDayCircleBgColor, resources.getColor(R.color.day_select_circle_bg_color));
-
-        normalDayTextSize = typedArray.getDimensionPixelSize(R.styleable.MonthView_dayTextSize, resources.getDimensionPixelSize(R.dimen.text_size_day));
-        MONTH_LABEL_TEXT_SIZE = typedArray.getDimensionPixelSize(R.styleable.MonthView_monthTextSize, resources.getDimensionPixelSize(R.dimen.text_size_month));
-        WEEK_LABEL_TEXT_SIZE = typedArray.getDimensionPixelSize(R.styleable.MonthView_weekLabelTextSize, resources.getDimensionPixelSize(R.dimen.text_size_week));
-        MONTH_HEADER_HEIGHT = monthHeaderSizeCache =  typedArray.getDimensionPixelOffset(R.styleable.MonthView_monthHeaderHeight, resources.getDimensionPixelOffset(R.dimen.header_month_height));
-        dayCircleRadius = typedArray.getDimensionPixelSize(R.styleable.MonthView_dayCircleRadius, resources.getDimensionPixelOffset(R.dimen.selected_day_radius));
-
-        dayRowHeight = typedArray.getDimensionPixelSize(R.styleable.MonthView_dayRowHeight, resources.getDimensionPixelOffset(R.dimen.row_height));
-        mShowMonthTitle = typedArray.getBoolean(R.styleable.MonthView_showMonthTitle, true);
-        mShowWeekLabel = typedArray.getBoolean(R.styleable.MonthView_showWeekLabel, true);
-        mShowWeekDivider = typedArray.getBoolean(R.styleable.MonthView_showWeekDivider, false);
-
-        spaceBetweenWeekAndDivider = resources.getDimensionPixelSize(R.dimen.week_label_between_divider_size);
-        if(!mShowMonthTitle) {
-            MONTH_HEADER_HEIGHT = 0;
-        }
-        if(!mShowWeekLabel) {
-            WEEK_LABEL_HEIGHT = 0;
-        } else {
-            WEEK_LABEL_HEIGHT = WEEK_LABEL_TEXT_SIZE + spaceBetweenWeekAndDivider;
-        }
-
-//        typedArray.recycle();
         mPadding = getPaddingLeft();
-        drawRect = new Rect();
-        initStyle();
-        initPaint();
+        mBounds = new Rect();
         setYearAndMonth(today.getYear(), today.getMonth());
-    }
-
-    private int calculateNumRows() {
-        int offset = findDayOffset();
-        int dividend = (offset + mNumCells) / mNumDays;
-        int remainder = (offset + mNumCells) % mNumDays;
-        return (dividend + (remainder > 0 ? 1 : 0));
+        // registered to the model only while attached
+        selectionObserver = new SelectionObserver();
+        if(mRenderer.selectionMode == SELECTION_MULTIPLE) {
+            setMultiSelection(new MultiDaySelection());
+        }
     }
 
     /**
@@ -166,347 +115,296 @@ public class MonthView extends View {
      */
     public void setToday(CalendarDay today) {
         this.today = today;
+        mRenderer.setToday(today);
         invalidate();
     }
 
-    private void initStyle() {
-        todayStyle = new DayDecor.Style();
-        todayStyle.setBold(true);
-        todayStyle.setTextColor(todayTextColor);
-
-        selectionStyle = new DayDecor.Style();
-        selectionStyle.setPureColorBgShape(DayDecor.Style.CIRCLE);
-        selectionStyle.setPureColorBg(mSelectedCircleColor);
-
-        normalStyle = new DayDecor.Style();
-
-        otherMonthStyle = new DayDecor.Style();
-        otherMonthStyle.setTextColor(mOtherMonthTextColor);
+    // invalidate a day row, taking collapse offset into account
+    private void invalidateRow(int row) {
+        int rowTop = mRenderer.getDaysTop() + row * mRenderer.dayRowHeight - getCollapseOffset();
+        invalidate(0, rowTop, mWidth, rowTop + mRenderer.dayRowHeight);
     }
 
-    private void drawWeekLabels(Canvas canvas) {
-        int y = MONTH_HEADER_HEIGHT + WEEK_LABEL_TEXT_SIZE + weekLabelOffset;
-        int dayWidthHalf = (mWidth - mPadding * 2) / (mNumDays * 2);
+    public String getMonthTitleString() {
+        int flags = DateUtils.FORMAT_SHOW_DATE | DateUtils.FORMAT_SHOW_YEAR | DateUtils.FORMAT_NO_MONTH_DAY;
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(Calendar.YEAR, mRenderer.year);
+        calendar.set(Calendar.MONTH, mRenderer.month - 1);
+        calendar.set(Calendar.DAY_OF_MONTH, 1);
+        long millis = calendar.getTimeInMillis();
+        return DateUtils.formatDateRange(getContext(), millis, millis, flags);
+    }
 
-        for (int i = 0; i < mNumDays; i++) {
-            int calendarDay = (i + mWeekStart) % mNumDays;
-            if (calendarDay == 0)
-                calendarDay = mNumDays;
-            int x = (2 * i + 1) * dayWidthHalf + mPadding;
+    public int getMonthTitleWidth() {
+        return mRenderer.getMonthTitleWidth();
+    }
 
-            final Locale locale = getResources().getConfiguration().locale;
-            SimpleDateFormat mDayOfWeekFormatter = new SimpleDateFormat(DAY_OF_WEEK_FORMAT, locale);
+    private void onDayClick(CalendarDay calendarDay) {
+        if (mOnDayClickListener != null) {
+            mOnDayClickListener.onDayClick(this, calendarDay);
+        }
+        if(mRenderer.selectionMode == SELECTION_RANGE) {
+            onRangeClick(CalendarUtils.toEpochDay(calendarDay));
+        } else if(mRenderer.selectionMode == SELECTION_MULTIPLE) {
+            if(mMultiSelection != null) {
+                mMultiSelection.toggle(CalendarUtils.toEpochDay(calendarDay));
+            }
+        } else {
+            setSelection(calendarDay);
+        }
+    }
 
-            Calendar cal = Calendar.getInstance();
-            cal.set(Calendar.DAY_OF_WEEK, calendarDay);
-            canvas.drawText(mDayOfWeekFormatter.format(cal.getTime()), x, y, mWeekLabelPaint);
+    // first tap picks start, second tap picks end, next tap starts a new range.
+    private void onRangeClick(int epochDay) {
+        int rangeStart = getRangeStartKey();
+        if(rangeStart == NO_DAY || getRangeEndKey() != NO_DAY || epochDay < rangeStart) {
+            setSelectionRange(epochDay, NO_DAY);
+        } else {
+            setSelectionRange(rangeStart, epochDay);
         }
+        dispatchRangeSelect();
+    }
 
-        if(mShowWeekDivider) {
-            //draw divider under week label
-            int yLine = MONTH_HEADER_HEIGHT + WEEK_LABEL_HEIGHT + weekLabelOffset;
-            canvas.drawLine(mPadding, yLine - 1, mWidth - mPadding, yLine, mWeekLabelPaint);
+    private void dispatchRangeSelect() {
+        if(mOnRangeSelectListener != null) {
+            mOnRangeSelectListener.onRangeSelect(this, getSelectionRangeStart(), getSelectionRangeEnd());
         }
     }
 
-    private void drawMonthTitle(Canvas canvas) {
-//        Log.e("MonthView", "drawMonthTitle");
-        int[] pos = getMonthDrawPoint();
-//        StringBuilder stringBuilder = new StringBuilder(getMonthAndYearString().toLowerCase());
-//        stringBuilder.setCharAt(0, Character.toUpperCase(stringBuilder.charAt(0)));
-        canvas.drawText(getMonthTitleString(), pos[0], pos[1], mMonthTitlePaint);
+    public void setSelectionStyle(DayDecor.Style selectionStyle) {
+        mRenderer.setSelectionStyle(selectionStyle);
+        invalidate();
     }
 
     /**
-     * draw the day of month
+     * select specified calendar day, in the selection model which may be shared with other views.
+     * @param calendarDay calendarDay; null to clear selection.
      */
-    protected void drawMonthDays(Canvas canvas) {
-        int dayTop = SPACE_BETWEEN_WEEK_AND_DAY + MONTH_HEADER_HEIGHT + WEEK_LABEL_HEIGHT;
-        int y = (dayRowHeight + normalDayTextSize) / 2 + dayTop;
-        int halfDay = halfDayWidth;
-        int firstDayOffset = findDayOffset();
-
-        int dayOffset = mShowOtherMonth ? 0 : firstDayOffset;
-        int cells = dayOffset + (mShowOtherMonth ? mNumRows * mNumDays : mNumCells);
-        for(int i = dayOffset; i < cells; i++) {
-            int dayLeft = dayOffset * halfDay * 2 + mPadding;
-            int x = halfDay + dayLeft;
+    public void setSelection(CalendarDay calendarDay) {
+        mRenderer.getSelectionModel().setSelection(calendarDay);
+    }
 
-            int day = i - firstDayOffset + 1;
-            int month = mMonth + 1;
-            if(day < 1) {
-                CalendarMonth calendarMonth = new CalendarMonth(mYear, mMonth + 1).previous();
-                month = calendarMonth.getMonth();
-                int preMDays = CalendarUtils.getDaysInMonth(calendarMonth);
-                day = preMDays + day;
-            } else if(day > mNumCells) {
-                month = new CalendarMonth(mYear, mMonth + 1).next().getMonth();
-                day = day - mNumCells;
-            }
+    /**
+     * share selected day and range with other views, e.g. all months of a calendar. Only views
+     * showing changed days are redrawn when the model changes.
+     * @param model SelectionModel, not null
+     */
+    public void setSelectionModel(SelectionModel model) {
+        SelectionModel old = mRenderer.getSelectionModel();
+        if(old == model)
+            return;
+        mRenderer.setSelectionModel(model);
+        if(getWindowToken() != null) {
+            old.removeOnSelectionChangeListener(selectionObserver);
+            model.addOnSelectionChangeListener(selectionObserver);
+        }
+        invalidate();
+    }
 
-            boolean selected = false;
-            if(selectedDay != null && selectedDay.equals(new CalendarDay(mYear, month, day))) { //selected
-                selected = true;
-            }
+    public SelectionModel getSelectionModel() {
+        return mRenderer.getSelectionModel();
+    }
 
-            // default color and size
-            mDayNumPaint.setColor(decorTextColor);
-            mDayNumPaint.setTextSize(normalDayTextSize);
-            // set style
-            DayDecor.Style style;
-            if(month != mMonth + 1) { // other month
-                style = otherMonthStyle;
-            } else if(mDecors != null && mDecors.getDecorStyle(mYear, mMonth + 1, day) != null) { // exist decor
-                style = mDecors.getDecorStyle(mYear, mMonth + 1, day);
-            } else if (today.equals(new CalendarDay(mYear, mMonth + 1, day))) { // today
-                style = todayStyle;
-            } else if (selected) { // today
-                style = selectionStyle;
-            } else { // normal
-                style = normalStyle;
-                style.setTextColor(normalDayTextColor);
-            }
-            style.styledTextPaint(mDayNumPaint);
-            // get text height
-            String dayStr = String.format(Locale.getDefault(), "%d", day);
-            mDayNumPaint.getTextBounds(dayStr, 0, dayStr.length(), drawRect);
-            int textHeight = drawRect.height();
-
-            // when selected, background always use selection style,
-            // whenever it used be.
-            if(selected) {
-                style = selectionStyle;
-            }
-            // draw background
-            if(style.isCircleBg()) {
-                mDayBgPaint.setColor(style.getPureColorBg());
-                canvas.drawCircle(x, y - textHeight / 2, dayCircleRadius, mDayBgPaint);
-            } else if(style.isRectBg()) {
-                mDayBgPaint.setColor(style.getPureColorBg());
-                canvas.drawRect(dayLeft, dayTop, dayLeft + 2 * halfDay, dayTop + dayRowHeight, mDayBgPaint);
-            } else if(style.isDrawableBg()) {
-                Drawable drawable = style.getDrawableBg();
-                int dHeight = drawable.getIntrinsicHeight();
-                int dWidth = drawable.getIntrinsicWidth();
-
-                int left, right, top, bottom;
-                if(dWidth <= 0) { // fill
-                    left = dayLeft;
-                    right = dayLeft + 2 * halfDay;
-                } else { // remain original size
-                    left = x - dWidth / 2;
-                    right = x + dWidth / 2;
-                }
-                if(dHeight <= 0) {
-                    top = dayTop;
-                    bottom = dayTop + dayRowHeight;
-                } else {
-                    top = y - textHeight / 2 - dHeight / 2;
-                    bottom = y - textHeight / 2 + dHeight / 2;
-                }
-                drawable.setBounds(left, top, right, bottom);
-                drawable.draw(canvas);
-            }
-            canvas.drawText(dayStr, x, y, mDayNumPaint);
-
-            // goto next day
-            dayOffset++;
-            if (dayOffset == mNumDays) {
-                dayOffset = 0;
-                y += dayRowHeight;
-                dayTop += dayRowHeight;
-            }
+    /**
+     * set selection mode.
+     * @param mode {@link #SELECTION_SINGLE}, {@link #SELECTION_RANGE}, {@link #SELECTION_MULTIPLE}
+     */
+    public void setSelectionMode(int mode) {
+        if(mRenderer.selectionMode == mode)
+            return;
+        mRenderer.setSelectionMode(mode);
+        if(mode == SELECTION_MULTIPLE && mMultiSelection == null) {
+            setMultiSelection(new MultiDaySelection());
         }
+        invalidate();
     }
 
-    private int findDayOffset() {
-        return (mDayOfWeekStart < mWeekStart ? (mDayOfWeekStart + mNumDays) : mDayOfWeekStart) - mWeekStart;
+    public int getSelectionMode() {
+        return mRenderer.selectionMode;
     }
 
-    public String getMonthTitleString() {
-        int flags = DateUtils.FORMAT_SHOW_DATE | DateUtils.FORMAT_SHOW_YEAR | DateUtils.FORMAT_NO_MONTH_DAY;
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.YEAR, mYear);
-        calendar.set(Calendar.MONTH, mMonth);
-        calendar.set(Calendar.DAY_OF_MONTH, 1);
-        long millis = calendar.getTimeInMillis();
-        return DateUtils.formatDateRange(getContext(), millis, millis, flags);
+    /**
+     * select a range of days, used in {@link #SELECTION_RANGE} mode.
+     * @param start start day; null to clear range.
+     * @param end end day; null if only start is picked.
+     */
+    public void setSelectionRange(CalendarDay start, CalendarDay end) {
+        if(start == null) {
+            setSelectionRange(NO_DAY, NO_DAY);
+        } else {
+            setSelectionRange(CalendarUtils.toEpochDay(start), end == null ? NO_DAY : CalendarUtils.toEpochDay(end));
+        }
     }
 
-    public int getMonthTitleWidth() {
-        return (int) mMonthTitlePaint.measureText(getMonthTitleString());
+    /**
+     * set range by epoch days, rows whose coverage changed are redrawn by the model listener.
+     */
+    void setSelectionRange(int start, int end) {
+        mRenderer.getSelectionModel().setRangeKeys(start, end);
     }
 
-    private void onDayClick(CalendarDay calendarDay) {
-        if (mOnDayClickListener != null) {
-            mOnDayClickListener.onDayClick(this, calendarDay);
-        }
-        setSelection(calendarDay);
+    /**
+     * @return start of range selection; null if not selected.
+     */
+    public CalendarDay getSelectionRangeStart() {
+        return mRenderer.getSelectionModel().getSelectionRangeStart();
     }
 
-    public void setSelectionStyle(DayDecor.Style selectionStyle) {
-        this.selectionStyle.combine(selectionStyle);
-        invalidate();
+    /**
+     * @return end of range selection; null if not selected.
+     */
+    public CalendarDay getSelectionRangeEnd() {
+        return mRenderer.getSelectionModel().getSelectionRangeEnd();
     }
 
     /**
-     * select specified calendar day.
-     * @param calendarDay calendarDay; null to clear selection.
+     * set the selection used in {@link #SELECTION_MULTIPLE} mode. It can be shared with other MonthViews.
+     * @param selection MultiDaySelection
      */
-    public void setSelection(CalendarDay calendarDay) {
-        if(selectedDay == calendarDay) // not changed
-            return;
-        if(calendarDay != null && calendarDay.equals(selectedDay)) //same day
+    public void setMultiSelection(MultiDaySelection selection) {
+        if(mMultiSelection == selection)
             return;
-
-        selectedDay = calendarDay;
+        if(multiSelectionObserver == null) {
+            multiSelectionObserver = new MultiSelectionObserver();
+        }
+        boolean attached = getWindowToken() != null;
+        if(attached && mMultiSelection != null) {
+            mMultiSelection.removeOnSelectionChangeListener(multiSelectionObserver);
+        }
+        mMultiSelection = selection;
+        mRenderer.setMultiSelection(selection);
+        if(attached && mMultiSelection != null) {
+            mMultiSelection.addOnSelectionChangeListener(multiSelectionObserver);
+        }
         invalidate();
     }
 
+    public MultiDaySelection getMultiSelection() {
+        return mMultiSelection;
+    }
+
+    int getSelectedKey() {
+        return mRenderer.getSelectionModel().getSelectedKey();
+    }
+
+    int getRangeStartKey() {
+        return mRenderer.getSelectionModel().getRangeStartKey();
+    }
+
+    int getRangeEndKey() {
+        return mRenderer.getSelectionModel().getRangeEndKey();
+    }
+
     protected void leftEdgeDay(CalendarDay lEdge) {
-        leftEdge = lEdge;
+        leftEdgeKey = lEdge == null ? NO_DAY : CalendarUtils.toEpochDay(lEdge);
     }
 
     protected void rightEdgeDay(CalendarDay rEdge) {
-        rightEdge = rEdge;
+        rightEdgeKey = rEdge == null ? NO_DAY : CalendarUtils.toEpochDay(rEdge);
+    }
+
+    // if this day is out of clickable range.
+    private boolean isOutOfEdge(int epochDay) {
+        return (leftEdgeKey != NO_DAY && epochDay < leftEdgeKey)
+                || (rightEdgeKey != NO_DAY && epochDay > rightEdgeKey);
     }
 
     private CalendarDay getDayFromLocation(float x, float y) {
-        int padding = mPadding;
-        if ((x < padding) || (x > mWidth - padding)) {
+        if(y > getVisibleHeight())
+            // collapsed away
             return null;
-        }
-
-        float yDayOffset = y - MONTH_HEADER_HEIGHT - WEEK_LABEL_HEIGHT - SPACE_BETWEEN_WEEK_AND_DAY;
-        if(yDayOffset < 0)
+        if(y < mRenderer.getDaysTop())
             return null;
-
-        int yDay = (int) yDayOffset / dayRowHeight;
-        int day = 1 + ((int) ((x - padding) / (2 * halfDayWidth)) - findDayOffset()) + yDay * mNumDays;
-
-        if(day < 1) {
-            if(mShowOtherMonth) {
-                CalendarMonth preM = new CalendarMonth(mYear, mMonth + 1).previous();
-                int preD = CalendarUtils.getDaysInMonth(preM) + day;
-                return new CalendarDay(preM, preD);
-            } else {
-                return null;
-            }
-        } else if(day > mNumCells) {
-            if(mShowOtherMonth) {
-                CalendarMonth nextM = new CalendarMonth(mYear, mMonth + 1).next();
-                int nextD = day - mNumCells;
-                return new CalendarDay(nextM, nextD);
-            } else {
-                return null;
-            }
-        } else
-            return new CalendarDay(mYear, mMonth + 1, day);
+        int epochDay = mRenderer.getDayAt(mBounds, x, y + getCollapseOffset());
+        return epochDay == NO_DAY ? null : CalendarUtils.fromEpochDay(epochDay);
     }
 
     private boolean isClickMonth(int x, int y) {
-        int[] pos = getMonthDrawPoint();
-        int centerX = pos[0];
-        int bottom = pos[1];
+        int centerX = mWidth / 2;
+        int bottom = mRenderer.getMonthTitleBaseline();
         int extra = 10;
         int width = getMonthTitleWidth();
-        Rect monthTitleRect = new Rect(centerX - width / 2 - extra, bottom - MONTH_LABEL_TEXT_SIZE - extra,
-                centerX + width / 2 + extra, bottom + extra);
-
-        return monthTitleRect.contains(x, y);
-    }
-
-    private int[] getMonthDrawPoint() {
-        int x = mWidth / 2;
-        int y = MONTH_HEADER_HEIGHT / 2 + (MONTH_LABEL_TEXT_SIZE / 3) + monthLabelOffset;
-        return new int[] {x, y};
-    }
-
-    protected void initPaint() {
-        mMonthTitlePaint = new Paint();
-        mMonthTitlePaint.setFakeBoldText(true);
-        mMonthTitlePaint.setAntiAlias(true);
-        mMonthTitlePaint.setTextSize(MONTH_LABEL_TEXT_SIZE);
-        mMonthTitlePaint.setTypeface(Typeface.create(mMonthTitleTypeface, Typeface.BOLD));
-        mMonthTitlePaint.setColor(mMonthTextColor);
-        mMonthTitlePaint.setTextAlign(Align.CENTER);
-        mMonthTitlePaint.setStyle(Style.FILL);
-
-        mDayBgPaint = new Paint();
-        mDayBgPaint.setAntiAlias(true);
-        mDayBgPaint.setColor(mSelectedCircleColor);
-        mDayBgPaint.setStyle(Style.FILL);
-
-        mWeekLabelPaint = new Paint();
-        mWeekLabelPaint.setAntiAlias(true);
-        mWeekLabelPaint.setTextSize(WEEK_LABEL_TEXT_SIZE);
-        mWeekLabelPaint.setColor(mWeekColor);
-        mWeekLabelPaint.setTypeface(Typeface.create(mDayOfWeekTypeface, Typeface.NORMAL));
-        mWeekLabelPaint.setStyle(Style.FILL);
-        mWeekLabelPaint.setTextAlign(Align.CENTER);
-        mWeekLabelPaint.setFakeBoldText(true);
-
-        mDayNumPaint = new Paint();
-        mDayNumPaint.setAntiAlias(true);
-        mDayNumPaint.setTextSize(normalDayTextSize);
-        mDayNumPaint.setStyle(Style.FILL);
-        mDayNumPaint.setTextAlign(Align.CENTER);
-        mDayNumPaint.setColor(normalDayTextColor);
-        mDayNumPaint.setFakeBoldText(false);
+        return x >= centerX - width / 2 - extra && x < centerX + width / 2 + extra
+                && y >= bottom - mStyle.monthTextSize - extra && y < bottom + extra;
     }
 
     protected void onDraw(Canvas canvas) {
 //        Log.d("MonthView", "onDraw");
 
-        if(mShowMonthTitle) {
-            drawMonthTitle(canvas);
+        if(!mTransitBounds.isEmpty()) {
+            // transiting, only days are shown
+            canvas.save();
+            canvas.clipRect(mTransitBounds);
+            mRenderer.drawDays(canvas, mTransitBounds);
+            canvas.restore();
+            return;
+        }
+        mRenderer.drawHeader(canvas, mBounds);
+        int collapseOffset = getCollapseOffset();
+        if(mCollapseProgress > 0f) {
+            // rows above anchor slide under header, rows below are clipped.
+            canvas.save();
+            canvas.clipRect(0, mRenderer.getMonthHeaderHeight() + mRenderer.getWeekLabelHeight(), mWidth, getVisibleHeight());
+            canvas.translate(0, -collapseOffset);
         }
-        if(mShowWeekLabel) {
-            drawWeekLabels(canvas);
+        mRenderer.drawDays(canvas, mBounds);
+        if(mCollapseProgress > 0f) {
+            canvas.restore();
         }
-        drawMonthDays(canvas);
     }
 
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-//        int heightMode = MeasureSpec.getMode(heightMeasureSpec);
-//        int heightSize = MeasureSpec.getSize(heightMeasureSpec);
-//
-//        int height = 0;
-//        switch (heightMode) {
-//            case MeasureSpec.AT_MOST:
-//                height = getShouldHeight();
-//                break;
-//            case MeasureSpec.EXACTLY:
-//            case MeasureSpec.UNSPECIFIED:
-//                height = heightSize;
-//                break;
-//        }
-
 //        Log.d("MonthView", "onMeasure->" + this.getId());
-        setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec), getShouldHeight());
+        setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec), getMeasureHeight());
+    }
+
+    private int getMeasureHeight() {
+        return mMeasureMaxHeight ? getMaxHeight() : getShouldHeight();
+    }
+
+    /**
+     * measure as tall as a month with most rows, used by pagers which lay out pages with a same
+     * height. Rows out of current month are not drawn.
+     * @param measureMaxHeight true - max height, false - height of current month
+     */
+    void setMeasureMaxHeight(boolean measureMaxHeight) {
+        if(mMeasureMaxHeight == measureMaxHeight)
+            return;
+        mMeasureMaxHeight = measureMaxHeight;
+        requestLayout();
     }
 
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         mWidth = w;
-        halfDayWidth = (mWidth - 2 * mPadding) / (2 * mNumDays);
+        mBounds.set(mPadding, 0, mWidth - mPadding, h);
     }
 
     @Override
-    protected void onDetachedFromWindow() {
-        super.onDetachedFromWindow();
-        recycle();
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        // may have changed while detached
+        mRenderer.getSelectionModel().addOnSelectionChangeListener(selectionObserver);
+        if(mMultiSelection != null) {
+            mMultiSelection.addOnSelectionChangeListener(multiSelectionObserver);
+        }
+        invalidate();
     }
 
-    private void recycle() {
-        if(mTypeArray != null) {
-            mTypeArray.recycle();
-            mTypeArray = null;
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mRenderer.getSelectionModel().removeOnSelectionChangeListener(selectionObserver);
+        if(mMultiSelection != null) {
+            mMultiSelection.removeOnSelectionChangeListener(multiSelectionObserver);
         }
     }
 
     protected void setOtherMonthTextColor(@ColorInt int color) {
-        mOtherMonthTextColor = color;
-        otherMonthStyle.setTextColor(color);
+        mRenderer.setOtherMonthTextColor(color);
+    }
+
+    protected void setShowOtherMonth(boolean show) {
+        mRenderer.setShowOtherMonth(show);
     }
 
     public boolean onTouchEvent(MotionEvent event) {
@@ -521,23 +419,41 @@ public class MonthView extends View {
             case MotionEvent.ACTION_DOWN:
                 downX = x;
                 downY = y;
+                startDragEdge(x, y);
+                break;
+            case MotionEvent.ACTION_MOVE:
+                if(draggingEdge != 0) {
+                    dragEdgeTo(x, y);
+                }
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                if(edgeDragged) {
+                    dispatchRangeSelect();
+                }
+                draggingEdge = 0;
+                edgeDragged = false;
                 break;
             case MotionEvent.ACTION_UP:
+                draggingEdge = 0;
+                if(edgeDragged) {
+                    edgeDragged = false;
+                    dispatchRangeSelect();
+                    break;
+                }
                 if (Math.abs(downX - x) < 10
                         && Math.abs(downY - y) < 10
                         && event.getEventTime() - event.getDownTime() < 500) {
                     CalendarDay calendarDay = getDayFromLocation(x, y);
                     if (calendarDay != null) {
                         // if this location is out of range.
-                        if((leftEdge != null && calendarDay.compareTo(leftEdge) < 0)
-                                || (rightEdge != null && calendarDay.compareTo(rightEdge) > 0))
+                        if(isOutOfEdge(CalendarUtils.toEpochDay(calendarDay)))
                             break;
                         // else
                         onDayClick(calendarDay);
                     } else if(isClickMonth((int)x, (int)y)) { // clicked month title
                         // month title clicked
                         if(mOnMonthClicker != null) {
-                            mOnMonthClicker.onMonthClick(this, new CalendarMonth(mYear, mMonth + 1));
+                            mOnMonthClicker.onMonthClick(this, getCurrentMonth());
                         }
                     }
                 }
@@ -546,6 +462,55 @@ public class MonthView extends View {
         return true;
     }
 
+    // start dragging when touch down on an edge of a complete range.
+    private void startDragEdge(float x, float y) {
+        draggingEdge = 0;
+        edgeDragged = false;
+        int rangeStart = getRangeStartKey();
+        int rangeEnd = getRangeEndKey();
+        if(mRenderer.selectionMode != SELECTION_RANGE || rangeStart == NO_DAY || rangeEnd == NO_DAY)
+            return;
+        CalendarDay calendarDay = getDayFromLocation(x, y);
+        if(calendarDay == null)
+            return;
+        int epochDay = CalendarUtils.toEpochDay(calendarDay);
+        if(epochDay == rangeStart) {
+            draggingEdge = 1;
+        } else if(epochDay == rangeEnd) {
+            draggingEdge = 2;
+        } else {
+            return;
+        }
+        // prevent parent (e.g. MonthViewPager) from intercepting
+        if(getParent() != null) {
+            getParent().requestDisallowInterceptTouchEvent(true);
+        }
+    }
+
+    private void dragEdgeTo(float x, float y) {
+        CalendarDay calendarDay = getDayFromLocation(x, y);
+        if(calendarDay == null)
+            return;
+        int epochDay = CalendarUtils.toEpochDay(calendarDay);
+        if(isOutOfEdge(epochDay))
+            return;
+        int start = getRangeStartKey();
+        int end = getRangeEndKey();
+        if(draggingEdge == 1) {
+            start = epochDay;
+        } else {
+            end = epochDay;
+        }
+        if(start == getRangeStartKey() && end == getRangeEndKey())
+            return;
+        if(start > end) {
+            // edges crossed, keep dragging the other one
+            draggingEdge = draggingEdge == 1 ? 2 : 1;
+        }
+        edgeDragged = true;
+        setSelectionRange(start, end);
+    }
+
     /**
      * 设置当前显示的年和月
      * @param calendarMonth calendarMonth
@@ -560,79 +525,230 @@ public class MonthView extends View {
      * @param month 月
      */
     public void setYearAndMonth(int year, int month) {
-        if(year == mYear && month == mMonth + 1)
+        setYearAndMonth(year, month, null);
+    }
+
+    /**
+     * @param title formatted month title, e.g. cached by the host; null to format it here
+     */
+    void setYearAndMonth(int year, int month, String title) {
+        if(mRenderer.weekMode) {
+            // show the first week of this month
+            setWeek(new CalendarDay(year, month, 1));
+            return;
+        }
+        if(year == mRenderer.year && month == mRenderer.month)
             return;
 
-        mYear = year;
-        mMonth = month - 1;
+        int oldHeight = getMeasureHeight();
+        mRenderer.setMonth(year, month);
+        mRenderer.setMonthTitle(title != null ? title : getMonthTitleString());
 
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.MONTH, mMonth);
-        calendar.set(Calendar.YEAR, mYear);
-        calendar.set(Calendar.DAY_OF_MONTH, 1);
-        mDayOfWeekStart = calendar.get(Calendar.DAY_OF_WEEK);
+        // layout only when rows changed the size
+        if(getMeasureHeight() != oldHeight) {
+            requestLayout();
+        }
+        invalidate();
+    }
 
-        mWeekStart = calendar.getFirstDayOfWeek();
+    /**
+     * switch to week mode, MonthView shows a single row of a week with same styles.
+     * @param weekMode true - show a week, false - show a month
+     */
+    public void setWeekMode(boolean weekMode) {
+        if(mRenderer.weekMode == weekMode)
+            return;
+        if(weekMode) {
+            // show the week containing selection, today, or the first day of month
+            int anchor = mRenderer.firstEpochDay;
+            if(isInMonth(getSelectedKey())) {
+                anchor = getSelectedKey();
+            } else if(isInMonth(mRenderer.todayKey)) {
+                anchor = mRenderer.todayKey;
+            }
+            mRenderer.setWeekMode(true);
+            setWeekStartKey(getWeekStartOf(anchor));
+        } else {
+            mRenderer.setWeekMode(false);
+        }
+        requestLayout();
+        invalidate();
+    }
 
-        mNumCells = CalendarUtils.getDaysInMonth(mMonth, mYear);
+    private boolean isInMonth(int epochDay) {
+        return epochDay >= mRenderer.firstEpochDay && epochDay < mRenderer.firstEpochDay + mRenderer.numCells;
+    }
 
-        mNumRows = calculateNumRows();
+    public boolean isWeekMode() {
+        return mRenderer.weekMode;
+    }
 
-        // we are not sure height will remain unchanged.
-        requestLayout();
+    /**
+     * show the week containing this day, used in week mode.
+     * @param calendarDay any day of the week
+     */
+    public void setWeek(CalendarDay calendarDay) {
+        setWeekStartKey(getWeekStartOf(CalendarUtils.toEpochDay(calendarDay)));
+    }
+
+    /**
+     * @return first day of showing week in week mode, not before the first day of
+     * {@link CalendarUtils#MIN_YEAR}
+     */
+    public CalendarDay getWeekStart() {
+        return CalendarUtils.fromEpochDay(Math.max(mRenderer.weekFirstEpochDay, CalendarUtils.MIN_EPOCH_DAY));
+    }
+
+    int getWeekStartKey() {
+        return mRenderer.weekFirstEpochDay;
+    }
+
+    /**
+     * show a week by epoch day of its first day. month of the week's middle day (e.g. thursday
+     * when week starts on monday) becomes the current month.
+     */
+    void setWeekStartKey(int weekStart) {
+        if(mRenderer.weekMode && weekStart == mRenderer.weekFirstEpochDay)
+            return;
+        int year = mRenderer.year;
+        int month = mRenderer.month;
+        mRenderer.setWeekStartKey(weekStart);
+        if(year != mRenderer.year || month != mRenderer.month) {
+            mRenderer.setMonthTitle(getMonthTitleString());
+        }
+        // always one row, no need to layout
         invalidate();
     }
 
+    // epoch day of the first day of the week containing a day
+    int getWeekStartOf(int epochDay) {
+        return mRenderer.getWeekStartOf(epochDay);
+    }
+
     public void setDecors(DayDecor mDecors) {
-        this.mDecors = mDecors;
+        mRenderer.setDecors(mDecors);
         invalidate();
     }
 
     public DayDecor getDecors() {
-        return mDecors;
+        return mRenderer.decors;
+    }
+
+    /**
+     * shade days by values of a heatmap instead of a decor per day. days whose decor has a
+     * background are not shaded.
+     * @param heatmap heatmap, null to clear
+     */
+    public void setHeatmap(DayHeatmap heatmap) {
+        mRenderer.setHeatmap(heatmap);
+        invalidate();
+    }
+
+    public DayHeatmap getHeatmap() {
+        return mRenderer.heatmap;
     }
 
     public void showMonthTitle(boolean show) {
-        this.mShowMonthTitle = show;
-        if(!mShowMonthTitle) {
-            MONTH_HEADER_HEIGHT = 0;
-        } else {
-            MONTH_HEADER_HEIGHT = monthHeaderSizeCache;
-        }
+        mRenderer.setShowMonthTitle(show);
     }
 
     public void showWeekLabel(boolean show) {
-        this.mShowWeekLabel = show;
-        if(!mShowWeekLabel) {
-            WEEK_LABEL_HEIGHT = 0;
-        } else {
-            WEEK_LABEL_HEIGHT = WEEK_LABEL_TEXT_SIZE + spaceBetweenWeekAndDivider;
-        }
+        mRenderer.setShowWeekLabel(show);
+    }
+
+    public boolean isShowMonthTitle() {
+        return mRenderer.showMonthTitle;
+    }
+
+    public boolean isShowWeekLabel() {
+        return mRenderer.showWeekLabel;
+    }
+
+    /**
+     * @return height of month title, 0 if not shown
+     */
+    public int getMonthHeaderHeight() {
+        return mRenderer.getMonthHeaderHeight();
+    }
+
+    /**
+     * @return height of week labels, 0 if not shown
+     */
+    public int getWeekLabelHeight() {
+        return mRenderer.getWeekLabelHeight();
     }
 
     public void setNormalDayTextColor(@ColorInt int color) {
-        normalDayTextColor = color;
+        mRenderer.setDayTextColor(color);
+    }
+
+    public int getNormalDayTextColor() {
+        return mRenderer.dayTextColor;
     }
 
     public void setNormalDayTextSize(int px) {
-        normalDayTextSize = px;
+        mRenderer.setDayTextSize(px);
+    }
+
+    public int getNormalDayTextSize() {
+        return mRenderer.dayTextSize;
     }
 
     public void setDayCircleRadius(int px) {
-        dayCircleRadius = px;
+        mRenderer.setDayCircleRadius(px);
+    }
+
+    public int getDayCircleRadius() {
+        return mRenderer.dayCircleRadius;
     }
 
     public void setDayRowHeight(int px) {
-        dayRowHeight = px;
+        mRenderer.setDayRowHeight(px);
+    }
+
+    public int getDayRowHeight() {
+        return mRenderer.dayRowHeight;
+    }
+
+    /**
+     * draw days into a rect of given size at top left, with day state interpolated between two
+     * states. Transitions call it every frame and move the view by translation, so no measure or
+     * layout happens.
+     * @param width width of days; 0 to draw into view bounds again
+     * @param height height of days
+     * @param from day state at fraction 0, see {@link MonthRenderer#interpolateDayState(int[], int[], float)}
+     * @param to day state at fraction 1
+     * @param fraction fraction
+     */
+    void setTransitFrame(int width, int height, int[] from, int[] to, float fraction) {
+        if(mStateBeforeTransit == null) {
+            mStateBeforeTransit = mRenderer.getDayState();
+        }
+        mTransitBounds.set(0, 0, width, height);
+        mRenderer.interpolateDayState(from, to, fraction);
+        invalidate();
+    }
+
+    /**
+     * stop drawing through transit frames, the view draws its own bounds with the day state it
+     * had before the transition.
+     */
+    void clearTransitFrame() {
+        if(mStateBeforeTransit == null)
+            return;
+        mTransitBounds.setEmpty();
+        mRenderer.interpolateDayState(mStateBeforeTransit, mStateBeforeTransit, 0f);
+        mStateBeforeTransit = null;
+        invalidate();
     }
 
     void setWeekLabelOffset(int weekLabelOffset) {
-        this.weekLabelOffset = weekLabelOffset;
+        mRenderer.setWeekLabelOffset(weekLabelOffset);
         invalidate();
     }
 
     void setMonthLabelOffset(int monthLabelOffset) {
-        this.monthLabelOffset = monthLabelOffset;
+        mRenderer.setMonthLabelOffset(monthLabelOffset);
         invalidate();
     }
 
@@ -641,7 +757,7 @@ public class MonthView extends View {
      * @return should height
      */
     public int getShouldHeight() {
-        return getHeightWithRows(mNumRows);
+        return mRenderer.getShouldHeight();
     }
 
     /**
@@ -649,11 +765,69 @@ public class MonthView extends View {
      * @return max height
      */
     public int getMaxHeight() {
-        return getHeightWithRows(DEFAULT_NUM_ROWS);
+        return mRenderer.getMaxHeight();
+    }
+
+    /**
+     * collapse day rows toward the anchor row (row of selection, or today, or the first row).
+     * Only drawing is affected: size and layout are unchanged, so it is cheap to call on every
+     * scroll frame.
+     * @param progress 0 - fully expanded, 1 - only anchor row is visible
+     */
+    public void setCollapseProgress(float progress) {
+        progress = Math.max(0f, Math.min(1f, progress));
+        if(progress == mCollapseProgress)
+            return;
+        mCollapseProgress = progress;
+        invalidate();
+    }
+
+    public float getCollapseProgress() {
+        return mCollapseProgress;
     }
 
-    private int getHeightWithRows(int rows) {
-        return MONTH_HEADER_HEIGHT + WEEK_LABEL_HEIGHT + SPACE_BETWEEN_WEEK_AND_DAY + dayRowHeight * rows;
+    /**
+     * height of the visible part at current collapse progress. It equals {@link #getShouldHeight()}
+     * when expanded.
+     * @return visible height
+     */
+    public int getVisibleHeight() {
+        int rows = mRenderer.numRows;
+        return mRenderer.getHeightWithRows(rows) - Math.round(mCollapseProgress * (rows - 1) * mRenderer.dayRowHeight);
+    }
+
+    /**
+     * @return the row stays visible when fully collapsed
+     */
+    public int getCollapseAnchorRow() {
+        if(mRenderer.weekMode)
+            return 0;
+        int row = mRenderer.getRowOf(mRenderer.selectionMode == SELECTION_RANGE ? getRangeStartKey() : getSelectedKey());
+        if(row < 0)
+            row = mRenderer.getRowOf(mRenderer.todayKey);
+        return row < 0 ? 0 : row;
+    }
+
+    // how far day rows are translated up by collapsing
+    private int getCollapseOffset() {
+        if(mCollapseProgress == 0f)
+            return 0;
+        return Math.round(mCollapseProgress * getCollapseAnchorRow() * mRenderer.dayRowHeight);
+    }
+
+    /**
+     * take showing state other than month from another MonthView, used when a pager adds a page.
+     * @param other MonthView to copy from
+     */
+    void copyStateFrom(MonthView other) {
+        setToday(other.today);
+        setWeekMode(other.isWeekMode());
+        setSelectionMode(other.getSelectionMode());
+        setSelectionModel(other.getSelectionModel());
+        setMultiSelection(other.getMultiSelection());
+        setDecors(other.getDecors());
+        setHeatmap(other.getHeatmap());
+        setCollapseProgress(other.getCollapseProgress());
     }
 
     // get a copy with same attributes defined in layout.
@@ -661,11 +835,25 @@ public class MonthView extends View {
         if(isCopy)
             // this is a copy, should not make a copy again.
             return null;
-        return new MonthView(getContext(), mTypeArray, null);
+        return new MonthView(getContext(), mStyle, null);
+    }
+
+    /**
+     * @return resolved style this MonthView is created with
+     */
+    public MonthViewStyle getMonthViewStyle() {
+        return mStyle;
+    }
+
+    /**
+     * @return renderer drawing this MonthView
+     */
+    public MonthRenderer getRenderer() {
+        return mRenderer;
     }
 
     public CalendarMonth getCurrentMonth() {
-        return new CalendarMonth(mYear, mMonth + 1);
+        return mRenderer.getMonth();
     }
 
     public void setOnDayClickListener(OnDayClickListener onDayClickListener) {
@@ -680,10 +868,76 @@ public class MonthView extends View {
         return mOnDayClickListener;
     }
 
+    public void setOnRangeSelectListener(OnRangeSelectListener onRangeSelectListener) {
+        mOnRangeSelectListener = onRangeSelectListener;
+    }
+
+    public OnRangeSelectListener getOnRangeSelectListener() {
+        return mOnRangeSelectListener;
+    }
+
     public void setOnMonthTitleClickListener(OnMonthTitleClickListener onMonthTitleClickListener) {
         this.mOnMonthClicker = onMonthTitleClickListener;
     }
 
+    // redraw rows containing flipped days
+    private class MultiSelectionObserver implements MultiDaySelection.OnSelectionChangeListener {
+        @Override
+        public void onSelectionChanged(MultiDaySelection selection, int[] changedRanges) {
+            if(mRenderer.selectionMode != SELECTION_MULTIPLE)
+                return;
+            for(int row = 0; row < mRenderer.numRows; row++) {
+                for(int i = 0; i < changedRanges.length; i += 2) {
+                    if(mRenderer.getRowSpan(row, changedRanges[i], changedRanges[i + 1]) != -1) {
+                        invalidateRow(row);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    // redraw rows containing old or new selected days
+    private class SelectionObserver implements SelectionModel.OnSelectionChangeListener {
+        @Override
+        public void onSelectionChanged(SelectionModel model, int oldKey, int newKey) {
+            if(mRenderer.selectionMode != SELECTION_SINGLE)
+                return;
+            int oldRow = mRenderer.getRowOf(oldKey);
+            int newRow = mRenderer.getRowOf(newKey);
+            if(oldRow == -1 && newRow == -1)
+                return;
+            if(mCollapseProgress > 0f) {
+                // collapse anchor may move
+                invalidate();
+                return;
+            }
+            if(oldRow != -1)
+                invalidateRow(oldRow);
+            if(newRow != -1 && newRow != oldRow)
+                invalidateRow(newRow);
+        }
+
+        @Override
+        public void onRangeChanged(SelectionModel model, int oldStart, int oldEnd) {
+            if(mRenderer.selectionMode != SELECTION_RANGE)
+                return;
+            int start = model.getRangeStartKey();
+            int end = model.getRangeEndKey();
+            boolean collapsed = mCollapseProgress > 0f;
+            for(int row = 0; row < mRenderer.numRows; row++) {
+                if(mRenderer.getRowSpan(row, oldStart, oldEnd) != mRenderer.getRowSpan(row, start, end)) {
+                    if(collapsed) {
+                        // collapse anchor may move
+                        invalidate();
+                        return;
+                    }
+                    invalidateRow(row);
+                }
+            }
+        }
+    }
+
     public interface OnDayClickListener {
         void onDayClick(MonthView monthView, CalendarDay calendarDay);
     }
@@ -691,4 +945,14 @@ public class MonthView extends View {
     public interface OnMonthTitleClickListener {
         void onMonthClick(MonthView monthView, CalendarMonth calendarMonth);
     }
-}
\ No newline at end of file
+
+    public interface OnRangeSelectListener {
+        /**
+         * range selection changed by user.
+         * @param monthView MonthView
+         * @param start start day; null if cleared
+         * @param end end day; null if only start is picked
+         */
+        void onRangeSelect(MonthView monthView, CalendarDay start, CalendarDay end);
+    }
+}
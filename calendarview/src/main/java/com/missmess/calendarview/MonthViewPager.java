@@ -1,9 +1,16 @@
 package com.missmess.calendarview;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
 import android.graphics.drawable.Drawable;
 import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.v4.util.LruCache;
 import android.support.v4.view.ViewCompat;
 import android.support.v4.widget.ViewDragHelper;
 import android.util.AttributeSet;
@@ -14,7 +21,9 @@ import android.view.ViewGroup;
 import android.widget.ImageView;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * MonthViewPager should contains one MonthView child to config their styles and attributes, the child will only
@@ -28,7 +37,11 @@ import java.util.List;
  * @since 2016/08/26 15:41
  */
 public class MonthViewPager extends ViewGroup {
+    // a fling faster than this moves a page, each multiple of it moves one more page
     private static final int VEL_THRESHOLD = 3000;
+    // titles of months passed by flings are kept for this many months at most
+    private static final int TITLE_CACHE_SIZE = 32;
+    private static final int ROWS_TRANSITION_DURATION = 200;
     private ViewDragHelper dragger;
     private MonthView childLeft;
     private MonthView childMiddle;
@@ -41,18 +54,64 @@ public class MonthViewPager extends ViewGroup {
     private int indicate_margin;
     private BtnClicker btnClicker;
     private DayClicker dayClicker;
+    private RangeSelector rangeSelector;
     private CalendarDay leftEdge;
     private CalendarDay rightEdge;
+    private int leftEdgeKey;
+    private int rightEdgeKey;
     private CalendarMonth currentMonth;
+    private boolean mWeekMode;
+    private int currentWeek = MonthView.NO_DAY;
+    private List<OnWeekChangeListener> mWeekChangeListeners;
     private boolean leftAble = true;
     private boolean rightAble = true;
     private OnDragListener mDragListener;
     private List<OnMonthChangeListener> mChangeListeners;
     private boolean mShowIndicator;
+    // indicator alpha inputs of (mAlphaTitle, mAlphaWidth, mAlphaIndicatorWidth), not computed while dragging
+    private String mAlphaTitle;
+    private int mAlphaWidth = -1;
+    private int mAlphaIndicatorWidth = -1;
+    private float mAlphaPoint1;
+    private float mAlphaPoint2;
     private DayDecor mDecors;
+    private DayHeatmap mHeatmap;
     private int month_marginTop;
     private boolean mShowOtherMonth;
     private int mOtherMonthColor;
+    private int mSelectionMode = MonthView.SELECTION_SINGLE;
+    private DayDecor.Style mSelectionStyle;
+    // pages bound on each side of middle
+    private int mOffscreenLimit;
+    // pages ordered from left to right, middle is at index mOffscreenLimit
+    private final List<MonthView> mPages = new ArrayList<>();
+    // pages a fling settles to from middle, positive toward next. Pages other than middle are
+    // moved ahead and rebound while it passes more months than the pool holds.
+    private int mFlingPages;
+    private int mFlingMonth;
+    private int mFlingWeek;
+    // month index to title, so a page passed by a fling is bound without formatting dates
+    private final LruCache<Integer, String> mTitleCache = new LruCache<>(TITLE_CACHE_SIZE);
+    // pages removed by a smaller offscreen limit, reused when it grows
+    private final List<MonthView> mRecycledPages = new ArrayList<>();
+    // the MonthView defined in layout, copied to create pages
+    private MonthView mOriginal;
+    private ViewGroup.LayoutParams mPageParams;
+    private MonthPagerAdapter mAdapter;
+    private AdapterChangeObserver mAdapterObserver;
+    // adapter month id each page is bound to
+    private final Map<MonthView, Long> mBoundIds = new HashMap<>();
+    // height of current month at last month change
+    private int mRowsHeight;
+    // animated height of current month while its row count changes, -1 if not animating
+    private int mAnimatingRowsHeight = -1;
+    private ValueAnimator mRowsAnimator;
+    private final Runnable mBuildLayersRunnable = new Runnable() {
+        @Override
+        public void run() {
+            buildPageLayers();
+        }
+    };
 
     public MonthViewPager(Context context) {
         this(context, null);
@@ -69,6 +128,7 @@ public class MonthViewPager extends ViewGroup {
         ic_previous = typedArray.getDrawable(R.styleable.MonthViewPager_ic_previous_month);
         ic_next = typedArray.getDrawable(R.styleable.MonthViewPager_ic_next_month);
         month_marginTop = typedArray.getDimensionPixelSize(R.styleable.MonthViewPager_month_marginTop, 0);
+        mOffscreenLimit = Math.max(1, typedArray.getInt(R.styleable.MonthViewPager_offscreenPageLimit, 1));
         if(ic_previous == null) {
             ic_previous = context.getResources().getDrawable(R.mipmap.ic_previous);
         }
@@ -86,8 +146,11 @@ public class MonthViewPager extends ViewGroup {
         dragger = ViewDragHelper.create(this, 1f, new DragCallBack());
         btnClicker = new BtnClicker();
         dayClicker = new DayClicker();
-        leftEdge = new CalendarDay(1900, 2, 1);
-        rightEdge = new CalendarDay(2049, 12, 31);
+        rangeSelector = new RangeSelector();
+        leftEdge = new CalendarDay(CalendarUtils.MIN_YEAR, 1, 1);
+        rightEdge = new CalendarDay(CalendarUtils.MAX_YEAR, 12, 31);
+        leftEdgeKey = CalendarUtils.toEpochDay(leftEdge);
+        rightEdgeKey = CalendarUtils.toEpochDay(rightEdge);
     }
 
     @Override
@@ -96,21 +159,21 @@ public class MonthViewPager extends ViewGroup {
         if(getChildCount() > 0 || !(child instanceof MonthView)) {
             throw new IllegalStateException("MonthViewPager can host only one MonthView child");
         }
-        childMiddle = (MonthView) child;
-        childLeft = childMiddle.staticCopy();
-        childLeft.setYearAndMonth(childMiddle.getCurrentMonth().previous());
-        childRight = childMiddle.staticCopy();
-        childRight.setYearAndMonth(childMiddle.getCurrentMonth().next());
-
+        mOriginal = (MonthView) child;
+        mOriginal.setMeasureMaxHeight(true);
+        childMiddle = mOriginal;
         childMiddle.setOnDayClickListener(dayClicker);
+        childMiddle.setOnRangeSelectListener(rangeSelector);
         // add param
         addChildAttrs();
 
-        // add three child
+        // add middle and pages around it
         params.width = ViewGroup.LayoutParams.MATCH_PARENT;
-        super.addView(childLeft, params);
+        mPageParams = params;
+        mPages.add(childMiddle);
         super.addView(childMiddle, params);
-        super.addView(childRight, params);
+        setupPages();
+        bindPages();
 
         // add indicators
         if(mShowIndicator) {
@@ -122,12 +185,230 @@ public class MonthViewPager extends ViewGroup {
     }
 
     private void addChildAttrs() {
-        childLeft.mShowOtherMonth = mShowOtherMonth;
-        childLeft.setOtherMonthTextColor(mOtherMonthColor);
-        childMiddle.mShowOtherMonth = mShowOtherMonth;
+        mSelectionMode = childMiddle.getSelectionMode();
+        childMiddle.setShowOtherMonth(mShowOtherMonth);
         childMiddle.setOtherMonthTextColor(mOtherMonthColor);
-        childRight.mShowOtherMonth = mShowOtherMonth;
-        childRight.setOtherMonthTextColor(mOtherMonthColor);
+    }
+
+    /**
+     * set how many pages are kept on each side of current page. Those pages are bound to their
+     * months ahead, and pages beyond the two neighbours are also drawn into hardware layers, so
+     * quick successive swipes show complete months. Each page past the neighbours holds a layer
+     * as large as the MonthView (width x height x 4 bytes of GPU memory), so memory grows with
+     * 2 * (limit - 1) layers; the default limit 1 uses none.
+     * @param limit pages on each side, at least 1
+     */
+    public void setOffscreenPageLimit(int limit) {
+        limit = Math.max(1, limit);
+        if(limit == mOffscreenLimit)
+            return;
+        mOffscreenLimit = limit;
+        if(childMiddle != null) {
+            setupPages();
+            bindPages();
+        }
+    }
+
+    public int getOffscreenPageLimit() {
+        return mOffscreenLimit;
+    }
+
+    // add or recycle pages so mOffscreenLimit pages are on each side of middle
+    private void setupPages() {
+        int middle = mPages.indexOf(childMiddle);
+        while(middle > mOffscreenLimit) {
+            recyclePage(0);
+            middle--;
+        }
+        while(mPages.size() - 1 - middle > mOffscreenLimit) {
+            recyclePage(mPages.size() - 1);
+        }
+        while(middle < mOffscreenLimit) {
+            mPages.add(0, obtainPage());
+            middle++;
+        }
+        while(mPages.size() < 2 * mOffscreenLimit + 1) {
+            mPages.add(obtainPage());
+        }
+        updateNeighbours();
+    }
+
+    // a recycled page or a new copy, taking current state of middle
+    private MonthView obtainPage() {
+        MonthView page;
+        if(mRecycledPages.isEmpty()) {
+            page = mOriginal.staticCopy();
+            page.setMeasureMaxHeight(true);
+            page.setShowOtherMonth(mShowOtherMonth);
+            page.setOtherMonthTextColor(mOtherMonthColor);
+        } else {
+            page = mRecycledPages.remove(mRecycledPages.size() - 1);
+        }
+        page.copyStateFrom(childMiddle);
+        if(mSelectionStyle != null) {
+            page.setSelectionStyle(mSelectionStyle);
+        }
+        // below indicators
+        super.addView(page, 0, mPageParams);
+        return page;
+    }
+
+    private void recyclePage(int index) {
+        MonthView page = mPages.remove(index);
+        mBoundIds.remove(page);
+        super.removeView(page);
+        page.setLayerType(LAYER_TYPE_NONE, null);
+        mRecycledPages.add(page);
+    }
+
+    /**
+     * refresh neighbours of middle. Pages beyond the neighbours are drawn into hardware layers;
+     * middle and neighbours are not, so a swipe never drops or builds a layer on the pages it
+     * moves between.
+     */
+    private void updateNeighbours() {
+        childMiddle = mPages.get(mOffscreenLimit);
+        childLeft = mPages.get(mOffscreenLimit - 1);
+        childRight = mPages.get(mOffscreenLimit + 1);
+        for(int i = 0; i < mPages.size(); i++) {
+            MonthView page = mPages.get(i);
+            int type = Math.abs(i - mOffscreenLimit) > 1 ? LAYER_TYPE_HARDWARE : LAYER_TYPE_NONE;
+            if(page.getLayerType() != type) {
+                page.setLayerType(type, null);
+            }
+        }
+    }
+
+    /**
+     * bind pages around middle to their months (or weeks). pages already showing theirs are
+     * skipped, so after a swipe only the page coming into the far end is bound.
+     */
+    private void bindPages() {
+        int middleMonth = CalendarUtils.getMonthIndex(childMiddle.getCurrentMonth());
+        int middleWeek = childMiddle.getWeekStartKey();
+        for(int i = 0; i < mPages.size(); i++) {
+            bindPage(mPages.get(i), middleMonth, middleWeek, i - mOffscreenLimit);
+        }
+        removeCallbacks(mBuildLayersRunnable);
+        post(mBuildLayersRunnable);
+    }
+
+    // bind a page to the month (or week) offset pages from middle, if within edges
+    private void bindPage(MonthView page, int middleMonth, int middleWeek, int offset) {
+        if(mWeekMode) {
+            int week = middleWeek + 7 * offset;
+            if(week + 6 < leftEdgeKey || week > rightEdgeKey)
+                // never scrolled to
+                return;
+            page.setWeekStartKey(week);
+        } else {
+            int index = middleMonth + offset;
+            if(index < CalendarUtils.getMonthIndex(leftEdge.getCalendarMonth()) || index > CalendarUtils.getMonthIndex(rightEdge.getCalendarMonth()))
+                return;
+            page.setYearAndMonth(index / 12, index % 12 + 1);
+        }
+        bindAdapter(page, false);
+    }
+
+    /**
+     * set adapter binding per-month data to pages. A page is bound when it is attached to a month.
+     * @param adapter adapter, null to remove
+     */
+    public void setAdapter(MonthPagerAdapter adapter) {
+        if(mAdapter == adapter)
+            return;
+        if(mAdapter != null) {
+            mAdapter.unregisterObserver(mAdapterObserver);
+        }
+        mAdapter = adapter;
+        mBoundIds.clear();
+        if(mAdapter != null) {
+            if(mAdapterObserver == null) {
+                mAdapterObserver = new AdapterChangeObserver();
+            }
+            mAdapter.registerObserver(mAdapterObserver);
+            if(childMiddle != null) {
+                bindPages();
+            }
+        }
+    }
+
+    public MonthPagerAdapter getAdapter() {
+        return mAdapter;
+    }
+
+    // bind month of a page to adapter, if not bound yet or forced
+    private void bindAdapter(MonthView page, boolean force) {
+        if(mAdapter == null)
+            return;
+        CalendarMonth month = page.getCurrentMonth();
+        long id = mAdapter.getMonthId(month);
+        Long bound = mBoundIds.get(page);
+        if(!force && bound != null && bound == id)
+            return;
+        mBoundIds.put(page, id);
+        mAdapter.onBindMonth(page, month);
+    }
+
+    // rebind pages bound to changed months
+    private class AdapterChangeObserver implements MonthPagerAdapter.AdapterObserver {
+        @Override
+        public void onMonthChanged(long monthId) {
+            for(MonthView page : mPages) {
+                Long bound = mBoundIds.get(page);
+                if(bound != null && bound == monthId) {
+                    bindAdapter(page, true);
+                }
+            }
+        }
+
+        @Override
+        public void onChanged() {
+            for(MonthView page : mPages) {
+                if(mBoundIds.containsKey(page)) {
+                    bindAdapter(page, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * pages can be scrolled to from middle toward previous or next, within edges.
+     * @param previous true - toward previous, false - toward next
+     * @return reachable pages
+     */
+    private int getReachablePages(boolean previous) {
+        int pages;
+        if(mWeekMode) {
+            int week = childMiddle.getWeekStartKey();
+            pages = previous ? (week - childMiddle.getWeekStartOf(leftEdgeKey)) / 7
+                    : (childMiddle.getWeekStartOf(rightEdgeKey) - week) / 7;
+        } else {
+            int month = CalendarUtils.getMonthIndex(childMiddle.getCurrentMonth());
+            pages = previous ? month - CalendarUtils.getMonthIndex(leftEdge.getCalendarMonth())
+                    : CalendarUtils.getMonthIndex(rightEdge.getCalendarMonth()) - month;
+        }
+        return Math.max(0, pages);
+    }
+
+    // draw layered pages now, instead of in the first frame they are dragged in
+    private void buildPageLayers() {
+        if(getWindowToken() == null || !isHardwareAccelerated())
+            return;
+        for(MonthView page : mPages) {
+            if(page.getLayerType() == LAYER_TYPE_HARDWARE && page.getWidth() > 0) {
+                page.buildLayer();
+            }
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        removeCallbacks(mBuildLayersRunnable);
+        if(mRowsAnimator != null) {
+            mRowsAnimator.cancel();
+        }
     }
 
     private ImageView createIndicator(Drawable icon) {
@@ -173,9 +454,9 @@ public class MonthViewPager extends ViewGroup {
     }
 
     public void setToday(CalendarDay today) {
-        childLeft.setToday(today);
-        childMiddle.setToday(today);
-        childRight.setToday(today);
+        for(MonthView page : mPages) {
+            page.setToday(today);
+        }
     }
 
     public MonthView getCurrentChild() {
@@ -193,7 +474,84 @@ public class MonthViewPager extends ViewGroup {
         }
         leftEdge = new CalendarDay(start, 1);
         rightEdge = new CalendarDay(end, CalendarUtils.getDaysInMonth(end));
-        checkEdge();
+        leftEdgeKey = CalendarUtils.toEpochDay(leftEdge);
+        rightEdgeKey = CalendarUtils.toEpochDay(rightEdge);
+        if(mWeekMode) {
+            // clamp current week into new range
+            currentWeek = MonthView.NO_DAY;
+            weekChanged();
+        } else {
+            checkEdge();
+        }
+    }
+
+    /**
+     * switch to week mode, MonthViewPager shows a single week row and pages week by week.
+     * @param weekMode true - page by week, false - page by month
+     */
+    public void setWeekMode(boolean weekMode) {
+        if(mWeekMode == weekMode)
+            return;
+        mWeekMode = weekMode;
+        for(MonthView page : mPages) {
+            page.setWeekMode(weekMode);
+        }
+        // rebind neighbours of middle
+        currentWeek = MonthView.NO_DAY;
+        currentMonth = null;
+        monthChanged(childMiddle);
+        requestLayout();
+    }
+
+    public boolean isWeekMode() {
+        return mWeekMode;
+    }
+
+    /**
+     * collapse month to the row of selection (or today). MonthViewPager keeps its size and layout,
+     * rows are only clipped and translated while drawing, so this can be driven from scroll offsets
+     * on every frame. Use {@link #getVisibleHeight()} to place views below.
+     * @param progress 0 - fully expanded, 1 - only one row is visible
+     */
+    public void setCollapseProgress(float progress) {
+        for(MonthView page : mPages) {
+            page.setCollapseProgress(progress);
+        }
+    }
+
+    public float getCollapseProgress() {
+        return childMiddle.getCollapseProgress();
+    }
+
+    /**
+     * height of visible part of current month at current collapse progress.
+     * @return visible height
+     */
+    public int getVisibleHeight() {
+        int height = childMiddle.getVisibleHeight();
+        if(mAnimatingRowsHeight >= 0) {
+            // follow the row count transition
+            height += mAnimatingRowsHeight - childMiddle.getShouldHeight();
+        }
+        return month_marginTop + height;
+    }
+
+    /**
+     * set MonthViewPager to show the week containing this day, used in week mode.
+     * @param calendarDay any day of the week
+     */
+    public void setCurrentWeek(CalendarDay calendarDay) {
+        if(calendarDay == null || !mWeekMode)
+            return;
+        childMiddle.setWeek(calendarDay);
+        monthChanged(childMiddle);
+    }
+
+    /**
+     * @return first day of current week in week mode, otherwise null
+     */
+    public CalendarDay getCurrentWeekStart() {
+        return mWeekMode ? childMiddle.getWeekStart() : null;
     }
 
     /**
@@ -204,6 +562,10 @@ public class MonthViewPager extends ViewGroup {
      * @param oldMiddle oldMiddle
      */
     private void monthChanged(MonthView oldMiddle) {
+        if(mWeekMode) {
+            weekChanged();
+            return;
+        }
         CalendarMonth old = currentMonth;
         currentMonth = childMiddle.getCurrentMonth();
         if(currentMonth.equals(old))
@@ -212,17 +574,17 @@ public class MonthViewPager extends ViewGroup {
         // lookup range
         checkEdge();
 
-        // setup left right view
-        MonthView left = null;
-        MonthView right = null;
-        if (leftAble) {
-            childLeft.setYearAndMonth(currentMonth.previous());
-            left = childLeft;
-        }
-        if (rightAble) {
-            childRight.setYearAndMonth(currentMonth.next());
-            right = childRight;
+        // setup pages around middle
+        bindPages();
+        MonthView left = leftAble ? childLeft : null;
+        MonthView right = rightAble ? childRight : null;
+        // pages are laid out with max height, a different row count needs no layout.
+        int rowsHeight = childMiddle.getShouldHeight();
+        if(old != null && rowsHeight != mRowsHeight) {
+            // rebound in place or settled on another page, either way rows would jump
+            animateRowsChange(mRowsHeight, rowsHeight);
         }
+        mRowsHeight = rowsHeight;
         // call listeners
         if(mChangeListeners != null) {
             for(OnMonthChangeListener listener : mChangeListeners) {
@@ -230,10 +592,94 @@ public class MonthViewPager extends ViewGroup {
                     listener.onMonthChanged(this, left, childMiddle, right, currentMonth, old);
             }
         }
-        requestLayout();
+    }
+
+    // clip current month from old height to new height, instead of showing or hiding a row at once
+    private void animateRowsChange(int from, int to) {
+        if(mRowsAnimator != null) {
+            from = mAnimatingRowsHeight >= 0 ? mAnimatingRowsHeight : from;
+            mRowsAnimator.cancel();
+        }
+        if(!isShown())
+            return;
+        mRowsAnimator = ValueAnimator.ofInt(from, to);
+        mRowsAnimator.setDuration(ROWS_TRANSITION_DURATION);
+        mRowsAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                mAnimatingRowsHeight = (int) animation.getAnimatedValue();
+                invalidate();
+            }
+        });
+        mRowsAnimator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                mAnimatingRowsHeight = -1;
+                mRowsAnimator = null;
+                invalidate();
+            }
+        });
+        mRowsAnimator.start();
+    }
+
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        if(child != childMiddle || mAnimatingRowsHeight < 0)
+            return super.drawChild(canvas, child, drawingTime);
+        canvas.save();
+        canvas.clipRect(child.getLeft(), 0, child.getRight(), getVisibleHeight());
+        boolean more = super.drawChild(canvas, child, drawingTime);
+        canvas.restore();
+        return more;
+    }
+
+    // week mode version of monthChanged()
+    private void weekChanged() {
+        // when edge is not containing current, correct current week.
+        int week = childMiddle.getWeekStartKey();
+        week = Math.max(week, childMiddle.getWeekStartOf(leftEdgeKey));
+        week = Math.min(week, childMiddle.getWeekStartOf(rightEdgeKey));
+        childMiddle.setWeekStartKey(week);
+
+        int oldWeek = currentWeek;
+        currentWeek = week;
+        if(currentWeek == oldWeek)
+            return;
+
+        checkEdge();
+
+        // setup pages around middle
+        bindPages();
+        MonthView left = leftAble ? childLeft : null;
+        MonthView right = rightAble ? childRight : null;
+        // call listeners
+        // first week may start before MIN_YEAR
+        CalendarDay weekStart = CalendarUtils.fromEpochDay(Math.max(currentWeek, CalendarUtils.MIN_EPOCH_DAY));
+        CalendarDay oldWeekStart = oldWeek == MonthView.NO_DAY ? null
+                : CalendarUtils.fromEpochDay(Math.max(oldWeek, CalendarUtils.MIN_EPOCH_DAY));
+        if(mWeekChangeListeners != null) {
+            for(OnWeekChangeListener listener : mWeekChangeListeners) {
+                if(listener != null)
+                    listener.onWeekChanged(this, weekStart, oldWeekStart);
+            }
+        }
+        CalendarMonth old = currentMonth;
+        currentMonth = childMiddle.getCurrentMonth();
+        if(!currentMonth.equals(old) && mChangeListeners != null) {
+            for(OnMonthChangeListener listener : mChangeListeners) {
+                if(listener != null)
+                    listener.onMonthChanged(this, left, childMiddle, right, currentMonth, old);
+            }
+        }
+        // a week always has one row, height remains unchanged.
     }
 
     private void checkEdge() {
+        if(mWeekMode) {
+            int week = childMiddle.getWeekStartKey();
+            setEdgeState(week <= leftEdgeKey, week + 6 >= rightEdgeKey);
+            return;
+        }
         CalendarMonth cm = childMiddle.getCurrentMonth();
         // when edge is not containing current, correct current month.
         if(cm.compareTo(leftEdge.getCalendarMonth()) < 0) {
@@ -243,7 +689,12 @@ public class MonthViewPager extends ViewGroup {
             setCurrentMonth(rightEdge.getCalendarMonth());
         }
 
-        if(cm.equals(leftEdge.getCalendarMonth())) {
+        setEdgeState(cm.equals(leftEdge.getCalendarMonth()), cm.equals(rightEdge.getCalendarMonth()));
+    }
+
+    // update indicators and clickable edges of middle
+    private void setEdgeState(boolean atLeftEdge, boolean atRightEdge) {
+        if(atLeftEdge) {
             if(indicator_left != null)
                 indicator_left.setVisibility(View.GONE);
             leftAble = false;
@@ -255,7 +706,7 @@ public class MonthViewPager extends ViewGroup {
             leftAble = true;
             childMiddle.leftEdgeDay(null);
         }
-        if(cm.equals(rightEdge.getCalendarMonth())) {
+        if(atRightEdge) {
             if(indicator_right != null)
                 indicator_right.setVisibility(View.GONE);
             rightAble = false;
@@ -271,9 +722,9 @@ public class MonthViewPager extends ViewGroup {
     public void setDecors(DayDecor decors) {
         this.mDecors = decors;
         if(childMiddle != null) {
-            childLeft.setDecors(decors);
-            childMiddle.setDecors(decors);
-            childRight.setDecors(decors);
+            for(MonthView page : mPages) {
+                page.setDecors(decors);
+            }
         }
     }
 
@@ -281,38 +732,257 @@ public class MonthViewPager extends ViewGroup {
         return mDecors;
     }
 
+    /**
+     * shade days of all months by a heatmap.
+     * @param heatmap heatmap, null to clear
+     */
+    public void setHeatmap(DayHeatmap heatmap) {
+        this.mHeatmap = heatmap;
+        if(childMiddle != null) {
+            for(MonthView page : mPages) {
+                page.setHeatmap(heatmap);
+            }
+        }
+    }
+
+    public DayHeatmap getHeatmap() {
+        return mHeatmap;
+    }
+
     public boolean isShowingIndicator() {
         return mShowIndicator;
     }
 
     /**
-     * select specified calendar day.
+     * select specified calendar day. all months share one {@link SelectionModel}, so only pages
+     * showing the old or new day are redrawn.
      * @param calendarDay calendarDay; null to clear selection.
      */
     public void setSelection(CalendarDay calendarDay) {
         if(childMiddle != null) {
-            childLeft.setSelection(calendarDay);
-            childMiddle.setSelection(calendarDay);
-            childRight.setSelection(calendarDay);
+            childMiddle.getSelectionModel().setSelection(calendarDay);
+        }
+    }
+
+    /**
+     * set the selection model shared by all months, pass the same model to other views (e.g.
+     * {@link YearView}) to keep their selection in sync.
+     * @param model SelectionModel, not null
+     */
+    public void setSelectionModel(SelectionModel model) {
+        if(childMiddle != null) {
+            for(MonthView page : mPages) {
+                page.setSelectionModel(model);
+            }
+        }
+    }
+
+    public SelectionModel getSelectionModel() {
+        return childMiddle == null ? null : childMiddle.getSelectionModel();
+    }
+
+    /**
+     * set selection mode of all months.
+     * @param mode {@link MonthView#SELECTION_SINGLE}, {@link MonthView#SELECTION_RANGE}
+     */
+    public void setSelectionMode(int mode) {
+        mSelectionMode = mode;
+        if(childMiddle != null) {
+            if(mode == MonthView.SELECTION_MULTIPLE && childMiddle.getMultiSelection() == null) {
+                // all months share one selection
+                setMultiSelection(new MultiDaySelection());
+            }
+            for(MonthView page : mPages) {
+                page.setSelectionMode(mode);
+            }
+        }
+    }
+
+    public int getSelectionMode() {
+        return mSelectionMode;
+    }
+
+    /**
+     * select a range of days across months, used in {@link MonthView#SELECTION_RANGE} mode.
+     * @param start start day; null to clear range.
+     * @param end end day; null if only start is picked.
+     */
+    public void setSelectionRange(CalendarDay start, CalendarDay end) {
+        if(childMiddle != null) {
+            childMiddle.getSelectionModel().setSelectionRange(start, end);
+        }
+    }
+
+    /**
+     * set the selection shared by all months in {@link MonthView#SELECTION_MULTIPLE} mode.
+     * @param selection MultiDaySelection
+     */
+    public void setMultiSelection(MultiDaySelection selection) {
+        if(childMiddle != null) {
+            for(MonthView page : mPages) {
+                page.setMultiSelection(selection);
+            }
         }
     }
 
+    public MultiDaySelection getMultiSelection() {
+        return childMiddle == null ? null : childMiddle.getMultiSelection();
+    }
+
+    public CalendarDay getSelectionRangeStart() {
+        return childMiddle == null ? null : childMiddle.getSelectionRangeStart();
+    }
+
+    public CalendarDay getSelectionRangeEnd() {
+        return childMiddle == null ? null : childMiddle.getSelectionRangeEnd();
+    }
+
     /**
      * set style of selected day
      * @param selectionStyle Style
      */
     public void setSelectionStyle(DayDecor.Style selectionStyle) {
+        mSelectionStyle = selectionStyle;
         if(childMiddle != null) {
-            childLeft.setSelectionStyle(selectionStyle);
-            childMiddle.setSelectionStyle(selectionStyle);
-            childRight.setSelectionStyle(selectionStyle);
+            for(MonthView page : mPages) {
+                page.setSelectionStyle(selectionStyle);
+            }
+        }
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState ss = new SavedState(super.onSaveInstanceState());
+        if(childMiddle != null) {
+            ss.monthIndex = CalendarUtils.getMonthIndex(childMiddle.getCurrentMonth());
+            ss.weekMode = mWeekMode;
+            ss.weekStart = childMiddle.getWeekStartKey();
+            ss.selectedKey = childMiddle.getSelectedKey();
+            ss.rangeStart = childMiddle.getRangeStartKey();
+            ss.rangeEnd = childMiddle.getRangeEndKey();
+            ss.collapseProgress = childMiddle.getCollapseProgress();
+            ss.leftEdge = leftEdgeKey;
+            ss.rightEdge = rightEdgeKey;
+            MultiDaySelection multiSelection = childMiddle.getMultiSelection();
+            if(multiSelection != null) {
+                ss.multiRanges = multiSelection.getSelectedRanges();
+            }
+        }
+        return ss;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if(!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
         }
+        SavedState ss = (SavedState) state;
+        super.onRestoreInstanceState(ss.getSuperState());
+        if(childMiddle == null)
+            return;
+        if(CalendarUtils.isInRange(ss.leftEdge) && CalendarUtils.isInRange(ss.rightEdge)
+                && ss.leftEdge <= ss.rightEdge) {
+            leftEdge = CalendarUtils.fromEpochDay(ss.leftEdge);
+            rightEdge = CalendarUtils.fromEpochDay(ss.rightEdge);
+            leftEdgeKey = ss.leftEdge;
+            rightEdgeKey = ss.rightEdge;
+        }
+        if(ss.multiRanges != null) {
+            MultiDaySelection multiSelection = childMiddle.getMultiSelection();
+            if(multiSelection == null) {
+                multiSelection = new MultiDaySelection();
+                setMultiSelection(multiSelection);
+            }
+            multiSelection.clear();
+            multiSelection.selectRanges(ss.multiRanges);
+        }
+        SelectionModel selection = childMiddle.getSelectionModel();
+        selection.setSelectedKey(ss.selectedKey);
+        selection.setRangeKeys(ss.rangeStart, ss.rangeEnd);
+        for(MonthView page : mPages) {
+            page.setCollapseProgress(ss.collapseProgress);
+            page.setWeekMode(ss.weekMode);
+        }
+        // move middle into restored edges, then bind pages around it once
+        mWeekMode = ss.weekMode;
+        if(mWeekMode) {
+            // weekChanged() clamps the week
+            childMiddle.setWeekStartKey(ss.weekStart);
+            currentWeek = MonthView.NO_DAY;
+        } else {
+            int monthIndex = Math.max(ss.monthIndex, CalendarUtils.getMonthIndex(leftEdge.getCalendarMonth()));
+            monthIndex = Math.min(monthIndex, CalendarUtils.getMonthIndex(rightEdge.getCalendarMonth()));
+            childMiddle.setYearAndMonth(monthIndex / 12, monthIndex % 12 + 1);
+        }
+        currentMonth = null;
+        monthChanged(childMiddle);
+    }
+
+    // current month, selection, range and month range edges as epoch days
+    static class SavedState extends BaseSavedState {
+        int monthIndex;
+        boolean weekMode;
+        int weekStart;
+        int selectedKey;
+        int rangeStart;
+        int rangeEnd;
+        float collapseProgress;
+        int leftEdge;
+        int rightEdge;
+        // multiple selection as [start, end] pairs, null if none
+        int[] multiRanges;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            monthIndex = in.readInt();
+            weekMode = in.readInt() != 0;
+            weekStart = in.readInt();
+            selectedKey = in.readInt();
+            rangeStart = in.readInt();
+            rangeEnd = in.readInt();
+            collapseProgress = in.readFloat();
+            leftEdge = in.readInt();
+            rightEdge = in.readInt();
+            multiRanges = in.createIntArray();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeInt(monthIndex);
+            out.writeInt(weekMode ? 1 : 0);
+            out.writeInt(weekStart);
+            out.writeInt(selectedKey);
+            out.writeInt(rangeStart);
+            out.writeInt(rangeEnd);
+            out.writeFloat(collapseProgress);
+            out.writeInt(leftEdge);
+            out.writeInt(rightEdge);
+            out.writeIntArray(multiRanges);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         mWidth = MeasureSpec.getSize(widthMeasureSpec);
-        if(childLeft == null || childMiddle == null || childRight == null) {
+        if(childMiddle == null) {
             throw new IllegalStateException("MonthViewPager should host a MonthView child");
         }
         int height = childMiddle.getMaxHeight() + month_marginTop;
@@ -320,9 +990,9 @@ public class MonthViewPager extends ViewGroup {
         //measure MonthView children
         int childWidthSpec = MeasureSpec.makeMeasureSpec(mWidth, MeasureSpec.AT_MOST);
         int childHeightSpec = MeasureSpec.makeMeasureSpec(height, MeasureSpec.AT_MOST);
-        childLeft.measure(childWidthSpec, childHeightSpec);
-        childMiddle.measure(childWidthSpec, childHeightSpec);
-        childRight.measure(childWidthSpec, childHeightSpec);
+        for(MonthView page : mPages) {
+            page.measure(childWidthSpec, childHeightSpec);
+        }
 
         // measure indicator ImageView
         if(mShowIndicator) {
@@ -338,12 +1008,14 @@ public class MonthViewPager extends ViewGroup {
     @Override
     protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
         int paddingTop = month_marginTop;
-        childMiddle.layout(0, paddingTop, mWidth, childMiddle.getShouldHeight() + paddingTop);
-        childLeft.layout(-mWidth, paddingTop, 0, childLeft.getShouldHeight() + paddingTop);
-        childRight.layout(mWidth, paddingTop, 2 * mWidth, childRight.getShouldHeight() + paddingTop);
+        for(int i = 0; i < mPages.size(); i++) {
+            MonthView page = mPages.get(i);
+            int pageLeft = (i - mOffscreenLimit) * mWidth;
+            page.layout(pageLeft, paddingTop, pageLeft + mWidth, page.getMeasuredHeight() + paddingTop);
+        }
 
         if(mShowIndicator) {
-            int month_header_height = childMiddle.MONTH_HEADER_HEIGHT;
+            int month_header_height = childMiddle.getMonthHeaderHeight();
             int left_height = indicator_left.getMeasuredHeight();
             int right_height = indicator_right.getMeasuredHeight();
             int top1 = (month_header_height + paddingTop - left_height) / 2;
@@ -370,8 +1042,18 @@ public class MonthViewPager extends ViewGroup {
         }
     }
 
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent ev) {
+        // collapsed area is not touchable, let views below handle it.
+        if(ev.getAction() == MotionEvent.ACTION_DOWN && ev.getY() > getVisibleHeight())
+            return false;
+        return super.dispatchTouchEvent(ev);
+    }
+
     @Override
     public boolean onInterceptTouchEvent(MotionEvent ev) {
+        if(ev.getActionMasked() == MotionEvent.ACTION_DOWN && catchFling())
+            return true;
         return dragger.shouldInterceptTouchEvent(ev);
     }
 
@@ -381,11 +1063,30 @@ public class MonthViewPager extends ViewGroup {
         return true;
     }
 
-    private float calcuIndicatorAlphaAtDistance(float d, float w, float i, float m) {
+    /**
+     * compute alpha breakpoints of indicators if title of middle page, width or indicator
+     * geometry changed since last computed. title is set once per month, so it is compared by
+     * reference.
+     */
+    private void updateIndicatorAlphaInputs() {
+        String title = childMiddle.getRenderer().getMonthTitle();
+        int indicatorWidth = indicator_left.getRight();
+        if(title == mAlphaTitle && mWidth == mAlphaWidth && indicatorWidth == mAlphaIndicatorWidth)
+            return;
+        mAlphaTitle = title;
+        mAlphaWidth = mWidth;
+        mAlphaIndicatorWidth = indicatorWidth;
+
+        float titleWidth = childMiddle.getMonthTitleWidth();
+        mAlphaPoint1 = mWidth / 2f - titleWidth / 2f - indicatorWidth;
+        mAlphaPoint2 = mWidth / 2f + titleWidth / 2f + indicatorWidth;
+    }
+
+    private float calcuIndicatorAlphaAtDistance(float d) {
         float min = 0.2f;
         float a;
-        float point1 = w / 2f - m / 2f - i;
-        float point2 = w / 2f + m / 2f + i;
+        float point1 = mAlphaPoint1;
+        float point2 = mAlphaPoint2;
         if (d < point1) {
             a = 1f - d * (1f - min) / point1;
         } else if (d <= point2) {
@@ -422,22 +1123,37 @@ public class MonthViewPager extends ViewGroup {
                 // can't move right
                 return 0;
             }
-            return left;
+            // not beyond the farthest bound page, a finger never drags more than a width
+            int next = Math.min(mOffscreenLimit, getReachablePages(false));
+            int previous = Math.min(mOffscreenLimit, getReachablePages(true));
+            return Math.max(-next * mWidth, Math.min(previous * mWidth, left));
         }
 
         @Override
         public void onViewReleased(View releasedChild, float xvel, float yvel) {
-            int DISTANCE_THRESHOLD = mWidth / 3;
-            int finalLeft = 0;
-            if (xvel < -VEL_THRESHOLD || releasedChild.getLeft() < -DISTANCE_THRESHOLD) {
-                finalLeft = -mWidth;
-                onScrollToRight();
+            // pages dragged, positive toward next
+            float dragged = -releasedChild.getLeft() / (float) mWidth;
+            int pages;
+            if (Math.abs(xvel) > VEL_THRESHOLD) {
+                // fling pages in proportion to velocity, from the page being dragged out
+                int flung = (int) (Math.abs(xvel) / VEL_THRESHOLD);
+                pages = (int) dragged + (xvel < 0 ? flung : -flung);
+            } else {
+                // settle to the nearest page, a third of width is enough to move a page
+                pages = dragged > 0 ? (int) (dragged + 2 / 3f) : -(int) (-dragged + 2 / 3f);
             }
-            if (xvel > VEL_THRESHOLD || releasedChild.getLeft() > DISTANCE_THRESHOLD) {
-                finalLeft = mWidth;
-                onScrollToLeft();
+            pages = Math.max(-getReachablePages(true), Math.min(getReachablePages(false), pages));
+            if (pages > 0) {
+                onScrollToRight(pages);
+            } else if (pages < 0) {
+                onScrollToLeft(-pages);
             }
-//            Log.e("dragHelper", String.format("xvel=%f;left=%d;finalLeft=%d", xvel, releasedChild.getLeft(), finalLeft));
+            // months beyond the pool are bound to pages passed by while settling, only the
+            // settled page is dispatched
+            mFlingPages = pages;
+            mFlingMonth = CalendarUtils.getMonthIndex(childMiddle.getCurrentMonth());
+            mFlingWeek = childMiddle.getWeekStartKey();
+            int finalLeft = -pages * mWidth;
 
             if (dragger.settleCapturedViewAt(finalLeft, month_marginTop)) {
                 ViewCompat.postInvalidateOnAnimation(MonthViewPager.this);
@@ -447,16 +1163,21 @@ public class MonthViewPager extends ViewGroup {
         @Override
         public void onViewPositionChanged(View changedView, int left, int top, int dx, int dy) {
             if(changedView == childMiddle) { // childMiddle is scrolling
-                // offset left and right children
-                childLeft.offsetLeftAndRight(dx);
-                childRight.offsetLeftAndRight(dx);
+                // offset other pages
+                for(MonthView page : mPages) {
+                    if(page != childMiddle)
+                        page.offsetLeftAndRight(dx);
+                }
+                if(Math.abs(mFlingPages) > mOffscreenLimit) {
+                    movePassedPages();
+                }
                 // if close to edge, alpha to 0;
                 // alpha indicators
                 if(mShowIndicator) {
-                    int monthTitleWidth = childMiddle.getMonthTitleWidth();
-                    int ind_width = indicator_left.getRight();
-                    int distance = Math.abs(left);
-                    float alpha = calcuIndicatorAlphaAtDistance(distance, mWidth, ind_width, monthTitleWidth);
+                    updateIndicatorAlphaInputs();
+                    // distance from the nearest page passed
+                    int distance = mWidth == 0 ? 0 : Math.abs(left) % mWidth;
+                    float alpha = calcuIndicatorAlphaAtDistance(distance);
                     indicator_left.setAlpha(alpha);
                     indicator_right.setAlpha(alpha);
                 }
@@ -472,60 +1193,146 @@ public class MonthViewPager extends ViewGroup {
             switch (state) {
                 case ViewDragHelper.STATE_IDLE:
                     MonthView old = childMiddle;
-                    // swap their position to make childMiddle still in middle
-                    if(childMiddle.getLeft() == -mWidth) {
-                        MonthView temp = childLeft;
-                        childLeft = childMiddle;
-                        childMiddle = childRight;
-                        childRight = temp;
-                        childRight.offsetLeftAndRight(3 * mWidth);
-                    } else if(childMiddle.getLeft() == mWidth) {
-                        MonthView temp = childRight;
-                        childRight = childMiddle;
-                        childMiddle = childLeft;
-                        childLeft = temp;
-                        childLeft.offsetLeftAndRight(-3 * mWidth);
-                    }
+                    mFlingPages = 0;
+                    arrangeSettledPages();
 
                     if(childMiddle != old) {
                         monthChanged(old);
                         // swap listener to current middle
                         childMiddle.setOnMonthTitleClickListener(old.getOnMonthTitleClickListener());
                         childMiddle.setOnDayClickListener(dayClicker);
+                        childMiddle.setOnRangeSelectListener(rangeSelector);
                         old.setOnMonthTitleClickListener(null);
                         old.setOnDayClickListener(null);
+                        old.setOnRangeSelectListener(null);
                     }
                     break;
             }
         }
     }
 
+    /**
+     * while a fling passes more months than the pool holds, a page falling more than the offscreen
+     * limit behind screen is moved after the farthest page ahead and bound to that month. Middle
+     * is the dragged view and stays where it is.
+     */
+    private void movePassedPages() {
+        boolean next = mFlingPages > 0;
+        int limit = mOffscreenLimit * mWidth;
+        for(int i = 0; i < mPages.size(); i++) {
+            MonthView page = mPages.get(i);
+            if(page == childMiddle || (next ? page.getLeft() >= -limit : page.getLeft() <= limit))
+                continue;
+            int farthest = page.getLeft();
+            for(MonthView other : mPages) {
+                farthest = next ? Math.max(farthest, other.getLeft()) : Math.min(farthest, other.getLeft());
+            }
+            int left = farthest + (next ? mWidth : -mWidth);
+            // pages from middle, which stays at the position it was released
+            int offset = (left - childMiddle.getLeft()) / mWidth;
+            if(Math.abs(offset) > Math.abs(mFlingPages))
+                // never scrolled to
+                continue;
+            page.offsetLeftAndRight(left - page.getLeft());
+            bindPassingPage(page, offset);
+        }
+    }
+
+    /**
+     * bind a page passed by a fling to its month only, the title comes from cache and the adapter
+     * is bound when the fling settles. Offset is within edges.
+     */
+    private void bindPassingPage(MonthView page, int offset) {
+        if(mWeekMode) {
+            page.setWeekStartKey(mFlingWeek + 7 * offset);
+            return;
+        }
+        int index = mFlingMonth + offset;
+        String title = mTitleCache.get(index);
+        page.setYearAndMonth(index / 12, index % 12 + 1, title);
+        if(title == null) {
+            mTitleCache.put(index, page.getRenderer().getMonthTitle());
+        }
+    }
+
+    /**
+     * a touch on a fling passing more months than the pool holds catches it, it then settles on
+     * the page nearest to screen. ViewDragHelper catches only the dragged middle, which such a
+     * fling has moved away.
+     * @return true if caught
+     */
+    private boolean catchFling() {
+        if(dragger.getViewDragState() != ViewDragHelper.STATE_SETTLING || Math.abs(mFlingPages) <= mOffscreenLimit)
+            return false;
+        MonthView nearest = childMiddle;
+        for(MonthView page : mPages) {
+            if(Math.abs(page.getLeft()) < Math.abs(nearest.getLeft()))
+                nearest = page;
+        }
+        int finalLeft = childMiddle.getLeft() - nearest.getLeft();
+        mFlingPages = -finalLeft / mWidth;
+        if(dragger.smoothSlideViewTo(childMiddle, finalLeft, month_marginTop)) {
+            ViewCompat.postInvalidateOnAnimation(this);
+        }
+        return true;
+    }
+
+    /**
+     * make the page settled at screen the middle and put others at their slots around it, pages
+     * showing their slot's month keep it and the rest are rebound by monthChanged().
+     */
+    private void arrangeSettledPages() {
+        MonthView settled = childMiddle;
+        for(MonthView page : mPages) {
+            if(Math.abs(page.getLeft()) < Math.abs(settled.getLeft()))
+                settled = page;
+        }
+        int size = mPages.size();
+        MonthView[] slots = new MonthView[size];
+        List<MonthView> free = new ArrayList<>(size);
+        for(MonthView page : mPages) {
+            int slot = mOffscreenLimit + (mWidth == 0 ? 0 : (page.getLeft() - settled.getLeft()) / mWidth);
+            if(slot >= 0 && slot < size && slots[slot] == null) {
+                slots[slot] = page;
+            } else {
+                free.add(page);
+            }
+        }
+        mPages.clear();
+        for(int i = 0; i < size; i++) {
+            MonthView page = slots[i] != null ? slots[i] : free.remove(0);
+            page.offsetLeftAndRight((i - mOffscreenLimit) * mWidth - page.getLeft());
+            mPages.add(page);
+        }
+        updateNeighbours();
+        // pages passed by a fling skipped the adapter, bind the settled one
+        bindAdapter(childMiddle, false);
+    }
+
     // when MonthViewPager start to scroll to left.
-    private void onScrollToLeft() {
+    private void onScrollToLeft(int pages) {
         // destination is edge, hide left indicator
-        if (childLeft.getCurrentMonth().equals(leftEdge.getCalendarMonth()))
-            if (mShowIndicator) {
-                indicator_left.setVisibility(View.GONE);
-            }
+        if (pages >= getReachablePages(true) && mShowIndicator) {
+            indicator_left.setVisibility(View.GONE);
+        }
     }
 
     // when MonthViewPager start to scroll to right.
-    private void onScrollToRight() {
+    private void onScrollToRight(int pages) {
         // destination is edge, hide right indicator
-        if (childRight.getCurrentMonth().equals(rightEdge.getCalendarMonth()))
-            if (mShowIndicator) {
-                indicator_right.setVisibility(View.GONE);
-            }
+        if (pages >= getReachablePages(false) && mShowIndicator) {
+            indicator_right.setVisibility(View.GONE);
+        }
     }
 
     private class BtnClicker implements OnClickListener {
         @Override
         public void onClick(View v) {
             if(v == indicator_left) {
-                onScrollToLeft();
+                onScrollToLeft(1);
                 dragger.smoothSlideViewTo(childMiddle, mWidth, month_marginTop);
             } else if(v == indicator_right) {
-                onScrollToRight();
+                onScrollToRight(1);
                 dragger.smoothSlideViewTo(childMiddle, -mWidth, month_marginTop);
             }
             ViewCompat.postInvalidateOnAnimation(MonthViewPager.this);
@@ -540,7 +1347,7 @@ public class MonthViewPager extends ViewGroup {
         }
         @Override
         public void onDayClick(MonthView monthView, CalendarDay calendarDay) {
-            if(mShowOtherMonth) {
+            if(mShowOtherMonth && !mWeekMode) {
                 int com = calendarDay.getCalendarMonth().compareTo(currentMonth);
                 if(com < 0) { // goto previous
                     postDelayed(new Runnable() {
@@ -560,13 +1367,25 @@ public class MonthViewPager extends ViewGroup {
                     }, 200);
                 }
             }
-            childLeft.setSelection(calendarDay);
-            childRight.setSelection(calendarDay);
+            // selection is set by the clicked month in the shared model
             if(mListener != null)
                 mListener.onDayClick(monthView, calendarDay);
         }
     }
 
+    // forward range selected in any month, months share the range in their selection model
+    private class RangeSelector implements MonthView.OnRangeSelectListener {
+        MonthView.OnRangeSelectListener mListener;
+        void setListener(MonthView.OnRangeSelectListener listener) {
+            mListener = listener;
+        }
+        @Override
+        public void onRangeSelect(MonthView monthView, CalendarDay start, CalendarDay end) {
+            if(mListener != null)
+                mListener.onRangeSelect(monthView, start, end);
+        }
+    }
+
     /**
      * set day click listener
      * @param onDayClickListener listener
@@ -575,6 +1394,14 @@ public class MonthViewPager extends ViewGroup {
         dayClicker.setListener(onDayClickListener);
     }
 
+    /**
+     * set range select listener, used in {@link MonthView#SELECTION_RANGE} mode.
+     * @param onRangeSelectListener listener
+     */
+    public void setOnRangeSelectListener(MonthView.OnRangeSelectListener onRangeSelectListener) {
+        rangeSelector.setListener(onRangeSelectListener);
+    }
+
     /**
      * set month label click listener
      * @param onMonthTitleClickListener listener
@@ -604,6 +1431,23 @@ public class MonthViewPager extends ViewGroup {
         }
     }
 
+    /**
+     * add a listener to listen current showing week changed event in week mode
+     * @param listener listener
+     */
+    public void addOnWeekChangeListener(OnWeekChangeListener listener) {
+        if (mWeekChangeListeners == null) {
+            mWeekChangeListeners = new ArrayList<>();
+        }
+        mWeekChangeListeners.add(listener);
+    }
+
+    public void removeOnWeekChangeListener(OnWeekChangeListener listener) {
+        if (mWeekChangeListeners != null) {
+            mWeekChangeListeners.remove(listener);
+        }
+    }
+
     /**
      * set a listener to listen MonthViewPager drag event;
      * @param onDragListener listener
@@ -625,6 +1469,16 @@ public class MonthViewPager extends ViewGroup {
         void onMonthChanged(MonthViewPager monthViewPager, MonthView previous, MonthView current, MonthView next, CalendarMonth currentMonth, CalendarMonth old);
     }
 
+    public interface OnWeekChangeListener {
+        /**
+         * current week has changed in week mode
+         * @param monthViewPager MonthViewPager
+         * @param weekStart first day of new week
+         * @param oldWeekStart first day of old week, may be null
+         */
+        void onWeekChanged(MonthViewPager monthViewPager, CalendarDay weekStart, CalendarDay oldWeekStart);
+    }
+
     public interface OnDragListener {
         /**
          * drag callback
@@ -0,0 +1,139 @@
+package com.missmess.calendarview;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Typeface;
+import android.util.AttributeSet;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Resolved attributes of a {@link MonthView}. It is immutable, so one instance is shared by all
+ * MonthViews created from the same attributes (e.g. children of YearView and MonthViewPager), and
+ * attributes, resources and typefaces are only resolved once. Styles of a theme are resolved again
+ * after its resources change configuration (e.g. font scale or density), since resource values
+ * depend on it.
+ */
+public final class MonthViewStyle {
+    // theme -> styles resolved under a configuration
+    private static final Map<Resources.Theme, ThemeStyles> sCache = new WeakHashMap<>();
+
+    final int monthTitleColor;
+    final int weekLabelTextColor;
+    final int dayTextColor;
+    final int todayTextColor;
+    final int decorTextColor;
+    final int selectedCircleColor;
+    final int dayTextSize;
+    final int monthTextSize;
+    final int weekLabelTextSize;
+    final int monthHeaderHeight;
+    final int dayCircleRadius;
+    final int dayRowHeight;
+    final int spaceBetweenWeekAndDivider;
+    final boolean showMonthTitle;
+    final boolean showWeekLabel;
+    final boolean showWeekDivider;
+    final int selectionMode;
+    final Typeface monthTitleTypeface;
+    final Typeface weekLabelTypeface;
+
+    private MonthViewStyle(Context context, TypedArray typedArray) {
+        Resources resources = context.getResources();
+        decorTextColor = resources.getColor(R.color.day_label_decor_text_color);
+        monthTitleColor = typedArray.getColor(R.styleable.MonthView_monthTitleColor, resources.getColor(R.color.month_title_color));
+        weekLabelTextColor = typedArray.getColor(R.styleable.MonthView_weekLabelTextColor, resources.getColor(R.color.week_label_text_color));
+        dayTextColor = typedArray.getColor(R.styleable.MonthView_dayTextColor, resources.getColor(R.color.day_label_text_color));
+        todayTextColor = resources.getColor(R.color.today_text_color);
+        selectedCircleColor = typedArray.getColor(R.styleable.MonthView_selectDayCircleBgColor, resources.getColor(R.color.day_select_circle_bg_color));
+
+        dayTextSize = typedArray.getDimensionPixelSize(R.styleable.MonthView_dayTextSize, resources.getDimensionPixelSize(R.dimen.text_size_day));
+        monthTextSize = typedArray.getDimensionPixelSize(R.styleable.MonthView_monthTextSize, resources.getDimensionPixelSize(R.dimen.text_size_month));
+        weekLabelTextSize = typedArray.getDimensionPixelSize(R.styleable.MonthView_weekLabelTextSize, resources.getDimensionPixelSize(R.dimen.text_size_week));
+        monthHeaderHeight = typedArray.getDimensionPixelOffset(R.styleable.MonthView_monthHeaderHeight, resources.getDimensionPixelOffset(R.dimen.header_month_height));
+        dayCircleRadius = typedArray.getDimensionPixelSize(R.styleable.MonthView_dayCircleRadius, resources.getDimensionPixelOffset(R.dimen.selected_day_radius));
+        dayRowHeight = typedArray.getDimensionPixelSize(R.styleable.MonthView_dayRowHeight, resources.getDimensionPixelOffset(R.dimen.row_height));
+        spaceBetweenWeekAndDivider = resources.getDimensionPixelSize(R.dimen.week_label_between_divider_size);
+
+        showMonthTitle = typedArray.getBoolean(R.styleable.MonthView_showMonthTitle, true);
+        showWeekLabel = typedArray.getBoolean(R.styleable.MonthView_showWeekLabel, true);
+        showWeekDivider = typedArray.getBoolean(R.styleable.MonthView_showWeekDivider, false);
+        selectionMode = typedArray.getInt(R.styleable.MonthView_selectionMode, MonthView.SELECTION_SINGLE);
+
+        String family = resources.getString(R.string.sans_serif);
+        monthTitleTypeface = Typeface.create(family, Typeface.BOLD);
+        weekLabelTypeface = Typeface.create(family, Typeface.NORMAL);
+    }
+
+    /**
+     * get the style for these attributes. Attributes with same values under same theme share one instance.
+     * @param context context
+     * @param attrs attributes, may be null
+     * @return style
+     */
+    public static MonthViewStyle obtain(Context context, AttributeSet attrs) {
+        Resources.Theme theme = context.getTheme();
+        String key = keyOf(attrs);
+        Configuration configuration = context.getResources().getConfiguration();
+        ThemeStyles themeStyles = sCache.get(theme);
+        if(themeStyles == null || !themeStyles.configuration.equals(configuration)) {
+            // resources of the theme changed configuration, drop styles resolved before
+            themeStyles = new ThemeStyles(configuration);
+            sCache.put(theme, themeStyles);
+        }
+        Map<String, MonthViewStyle> styles = themeStyles.styles;
+        MonthViewStyle style = styles.get(key);
+        if(style == null) {
+            TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.MonthView);
+            style = new MonthViewStyle(context, typedArray);
+            typedArray.recycle();
+            styles.put(key, style);
+        }
+        return style;
+    }
+
+    // raw attribute values, unresolved references are resolved under the same theme so they are equal too.
+    private static String keyOf(AttributeSet attrs) {
+        if(attrs == null)
+            return "";
+        StringBuilder sb = new StringBuilder();
+        sb.append(attrs.getStyleAttribute());
+        int count = attrs.getAttributeCount();
+        for(int i = 0; i < count; i++) {
+            sb.append('|').append(attrs.getAttributeNameResource(i))
+                    .append('=').append(attrs.getAttributeValue(i));
+        }
+        return sb.toString();
+    }
+
+    public int getDayRowHeight() {
+        return dayRowHeight;
+    }
+
+    public int getMonthHeaderHeight() {
+        return showMonthTitle ? monthHeaderHeight : 0;
+    }
+
+    public int getWeekLabelHeight() {
+        return showWeekLabel ? weekLabelTextSize + spaceBetweenWeekAndDivider : 0;
+    }
+
+    public int getSelectionMode() {
+        return selectionMode;
+    }
+
+    // attributes key -> style, valid under one configuration
+    private static class ThemeStyles {
+        final Configuration configuration;
+        final Map<String, MonthViewStyle> styles = new HashMap<>();
+
+        ThemeStyles(Configuration configuration) {
+            // copy, resources update their configuration in place
+            this.configuration = new Configuration(configuration);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.missmess.calendarview;
+
+import android.util.SparseArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A set of selected days used by {@link MonthView#SELECTION_MULTIPLE} mode. Days are stored as bits
+ * indexed by epoch day, so a membership test is a single bit test, and bulk operations (select a week,
+ * invert a month, clear a range) work on 64 days at a time. Bits are allocated in blocks of 4096
+ * days only where days were selected, so the whole range of {@link CalendarUtils#MIN_YEAR} to
+ * {@link CalendarUtils#MAX_YEAR} costs nothing until used.
+ *
+ * <p>One instance can be shared by many MonthViews, e.g. all children of a {@link MonthViewPager}.
+ * Changes are dispatched to {@link OnSelectionChangeListener}s as range encoded diffs.</p>
+ */
+public class MultiDaySelection {
+    private static final int MIN_EPOCH_DAY = CalendarUtils.toEpochDay(CalendarUtils.MIN_YEAR, 1, 1);
+    private static final int MAX_EPOCH_DAY = CalendarUtils.toEpochDay(CalendarUtils.MAX_YEAR, 12, 31);
+    // a block holds 1 << BLOCK_SHIFT days
+    private static final int BLOCK_SHIFT = 12;
+    private static final int WORD_BLOCK_SHIFT = BLOCK_SHIFT - 6;
+    private static final int WORDS_PER_BLOCK = 1 << WORD_BLOCK_SHIFT;
+    private static final int OP_SET = 0;
+    private static final int OP_CLEAR = 1;
+    private static final int OP_FLIP = 2;
+
+    // words of days by block index, days counted from MIN_EPOCH_DAY
+    private final SparseArray<long[]> blocks = new SparseArray<>();
+    private List<OnSelectionChangeListener> mListeners;
+
+    public MultiDaySelection() {
+    }
+
+    public boolean isSelected(CalendarDay calendarDay) {
+        return isSelected(CalendarUtils.toEpochDay(calendarDay));
+    }
+
+    boolean isSelected(int epochDay) {
+        if(epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY)
+            return false;
+        int index = epochDay - MIN_EPOCH_DAY;
+        long[] words = blocks.get(index >> BLOCK_SHIFT);
+        return words != null && (words[(index >> 6) & (WORDS_PER_BLOCK - 1)] & (1L << index)) != 0;
+    }
+
+    public void select(CalendarDay calendarDay) {
+        int epochDay = CalendarUtils.toEpochDay(calendarDay);
+        apply(epochDay, epochDay, OP_SET);
+    }
+
+    public void unselect(CalendarDay calendarDay) {
+        int epochDay = CalendarUtils.toEpochDay(calendarDay);
+        apply(epochDay, epochDay, OP_CLEAR);
+    }
+
+    public void toggle(CalendarDay calendarDay) {
+        toggle(CalendarUtils.toEpochDay(calendarDay));
+    }
+
+    void toggle(int epochDay) {
+        apply(epochDay, epochDay, OP_FLIP);
+    }
+
+    /**
+     * select all days between from and to, both inclusive.
+     * @param from from day
+     * @param to to day
+     */
+    public void selectRange(CalendarDay from, CalendarDay to) {
+        apply(CalendarUtils.toEpochDay(from), CalendarUtils.toEpochDay(to), OP_SET);
+    }
+
+    /**
+     * unselect all days between from and to, both inclusive.
+     * @param from from day
+     * @param to to day
+     */
+    public void clearRange(CalendarDay from, CalendarDay to) {
+        apply(CalendarUtils.toEpochDay(from), CalendarUtils.toEpochDay(to), OP_CLEAR);
+    }
+
+    /**
+     * invert selection state of all days between from and to, both inclusive.
+     * @param from from day
+     * @param to to day
+     */
+    public void invertRange(CalendarDay from, CalendarDay to) {
+        apply(CalendarUtils.toEpochDay(from), CalendarUtils.toEpochDay(to), OP_FLIP);
+    }
+
+    /**
+     * select the whole week containing a day.
+     * @param calendarDay any day in week
+     * @param firstDayOfWeek first day of week, e.g. {@link java.util.Calendar#SUNDAY}
+     */
+    public void selectWeek(CalendarDay calendarDay, int firstDayOfWeek) {
+        int epochDay = CalendarUtils.toEpochDay(calendarDay);
+        int weekStart = epochDay - (CalendarUtils.getDayOfWeek(epochDay) - firstDayOfWeek + 7) % 7;
+        apply(weekStart, weekStart + 6, OP_SET);
+    }
+
+    /**
+     * invert selection state of all days in a month.
+     * @param calendarMonth month
+     */
+    public void invertMonth(CalendarMonth calendarMonth) {
+        int first = CalendarUtils.toEpochDay(calendarMonth.getYear(), calendarMonth.getMonth(), 1);
+        apply(first, first + CalendarUtils.getDaysInMonth(calendarMonth) - 1, OP_FLIP);
+    }
+
+    /**
+     * clear all selected days
+     */
+    public void clear() {
+        apply(MIN_EPOCH_DAY, MAX_EPOCH_DAY, OP_CLEAR);
+    }
+
+    /**
+     * @return count of selected days
+     */
+    public int getSelectedCount() {
+        int count = 0;
+        for (int b = 0; b < blocks.size(); b++) {
+            for (long word : blocks.valueAt(b)) {
+                count += Long.bitCount(word);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * get all selected days in order.
+     * @return list of days
+     */
+    public List<CalendarDay> getSelectedDays() {
+        List<CalendarDay> days = new ArrayList<>();
+        // blocks are ordered by index
+        for(int b = 0; b < blocks.size(); b++) {
+            long[] words = blocks.valueAt(b);
+            int base = MIN_EPOCH_DAY + (blocks.keyAt(b) << BLOCK_SHIFT);
+            for(int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    days.add(CalendarUtils.fromEpochDay(base + (i << 6) + bit));
+                    word &= word - 1;
+                }
+            }
+        }
+        return days;
+    }
+
+    /**
+     * @return selected days encoded as inclusive [start, end] pairs of epoch days, in order
+     */
+    int[] getSelectedRanges() {
+        RangeBuilder ranges = new RangeBuilder();
+        for(int b = 0; b < blocks.size(); b++) {
+            long[] words = blocks.valueAt(b);
+            int base = MIN_EPOCH_DAY + (blocks.keyAt(b) << BLOCK_SHIFT);
+            for(int i = 0; i < words.length; i++) {
+                ranges.addWord(base + (i << 6), words[i]);
+            }
+        }
+        return ranges.build();
+    }
+
+    /**
+     * select days of inclusive [start, end] pairs of epoch days, as from {@link #getSelectedRanges()}.
+     * @param ranges ranges
+     */
+    void selectRanges(int[] ranges) {
+        for(int i = 0; i + 1 < ranges.length; i += 2) {
+            apply(ranges[i], ranges[i + 1], OP_SET);
+        }
+    }
+
+    /**
+     * apply an operation to [from, to] word by word, and dispatch flipped days as ranges.
+     */
+    private void apply(int from, int to, int op) {
+        if(from > to) {
+            int temp = from;
+            from = to;
+            to = temp;
+        }
+        from = Math.max(from, MIN_EPOCH_DAY) - MIN_EPOCH_DAY;
+        to = Math.min(to, MAX_EPOCH_DAY) - MIN_EPOCH_DAY;
+        if(from > to)
+            return;
+
+        RangeBuilder diff = new RangeBuilder();
+        int firstWord = from >> 6;
+        int lastWord = to >> 6;
+        long[] words = null;
+        int blockIndex = -1;
+        for(int i = firstWord; i <= lastWord; i++) {
+            if(blockIndex != i >> WORD_BLOCK_SHIFT) {
+                blockIndex = i >> WORD_BLOCK_SHIFT;
+                words = blocks.get(blockIndex);
+                if(words == null) {
+                    if(op == OP_CLEAR) {
+                        // nothing selected in this block
+                        i = ((blockIndex + 1) << WORD_BLOCK_SHIFT) - 1;
+                        continue;
+                    }
+                    words = new long[WORDS_PER_BLOCK];
+                    blocks.put(blockIndex, words);
+                }
+            }
+            long mask = -1L;
+            if(i == firstWord)
+                mask &= -1L << from;
+            if(i == lastWord)
+                mask &= -1L >>> (63 - (to & 63));
+
+            int w = i & (WORDS_PER_BLOCK - 1);
+            long old = words[w];
+            long now;
+            switch (op) {
+                case OP_SET:
+                    now = old | mask;
+                    break;
+                case OP_CLEAR:
+                    now = old & ~mask;
+                    break;
+                default:
+                    now = old ^ mask;
+                    break;
+            }
+            words[w] = now;
+            diff.addWord(MIN_EPOCH_DAY + (i << 6), old ^ now);
+        }
+        if(!diff.isEmpty()) {
+            dispatchChanged(diff.build());
+        }
+    }
+
+    private void dispatchChanged(int[] ranges) {
+        if(mListeners != null) {
+            for(OnSelectionChangeListener listener : mListeners) {
+                listener.onSelectionChanged(this, ranges);
+            }
+        }
+    }
+
+    public void addOnSelectionChangeListener(OnSelectionChangeListener listener) {
+        if(mListeners == null) {
+            mListeners = new ArrayList<>();
+        }
+        if(!mListeners.contains(listener)) {
+            mListeners.add(listener);
+        }
+    }
+
+    public void removeOnSelectionChangeListener(OnSelectionChangeListener listener) {
+        if(mListeners != null) {
+            mListeners.remove(listener);
+        }
+    }
+
+    public interface OnSelectionChangeListener {
+        /**
+         * selection state of some days flipped.
+         * @param selection MultiDaySelection
+         * @param changedRanges flipped days encoded as inclusive [start, end] pairs of epoch days,
+         *                      use {@link CalendarUtils#fromEpochDay(int)} to convert.
+         */
+        void onSelectionChanged(MultiDaySelection selection, int[] changedRanges);
+    }
+
+    // collect set bits of words into merged [start, end] pairs
+    private static class RangeBuilder {
+        private int[] ranges = new int[8];
+        private int size = 0;
+
+        void addWord(int base, long bits) {
+            while (bits != 0) {
+                int low = Long.numberOfTrailingZeros(bits);
+                int length = Long.numberOfTrailingZeros(~(bits >>> low));
+                if(length > 64 - low)
+                    length = 64 - low;
+                add(base + low, base + low + length - 1);
+                if(low + length >= 64) {
+                    bits = 0;
+                } else {
+                    bits &= -1L << (low + length);
+                }
+            }
+        }
+
+        private void add(int start, int end) {
+            if(size > 0 && ranges[size - 1] == start - 1) {
+                ranges[size - 1] = end;
+                return;
+            }
+            if(size + 2 > ranges.length) {
+                ranges = Arrays.copyOf(ranges, ranges.length * 2);
+            }
+            ranges[size++] = start;
+            ranges[size++] = end;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int[] build() {
+            return Arrays.copyOf(ranges, size);
+        }
+    }
+}
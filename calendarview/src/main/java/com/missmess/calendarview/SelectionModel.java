@@ -0,0 +1,161 @@
+package com.missmess.calendarview;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Selected day and selected range of a calendar, stored as epoch days. One instance is shared by
+ * reference between all views showing the calendar (pages of a {@link MonthViewPager}, months of a
+ * {@link MonthListView}, a {@link YearView}), so a selection change is a single mutation. Views
+ * listen to {@link OnSelectionChangeListener} and redraw only if they show the old or new days.
+ *
+ * <p>Days selected in {@link MonthView#SELECTION_MULTIPLE} mode are kept in a
+ * {@link MultiDaySelection}.</p>
+ */
+public class SelectionModel {
+    // read directly by renderers, NO_DAY if none
+    int selectedKey = MonthView.NO_DAY;
+    // start <= end, or end is NO_DAY if only start is picked
+    int rangeStart = MonthView.NO_DAY;
+    int rangeEnd = MonthView.NO_DAY;
+    private List<OnSelectionChangeListener> mListeners;
+
+    public SelectionModel() {
+    }
+
+    /**
+     * select a day, used in {@link MonthView#SELECTION_SINGLE} mode.
+     * @param calendarDay calendarDay; null to clear selection.
+     */
+    public void setSelection(CalendarDay calendarDay) {
+        setSelectedKey(calendarDay == null ? MonthView.NO_DAY : CalendarUtils.toEpochDay(calendarDay));
+    }
+
+    /**
+     * @return selected day; null if not selected.
+     */
+    public CalendarDay getSelection() {
+        return selectedKey == MonthView.NO_DAY ? null : CalendarUtils.fromEpochDay(selectedKey);
+    }
+
+    void setSelectedKey(int epochDay) {
+        int old = selectedKey;
+        if(old == epochDay)
+            return;
+        selectedKey = epochDay;
+        if(mListeners != null) {
+            for(int i = mListeners.size() - 1; i >= 0; i--) {
+                mListeners.get(i).onSelectionChanged(this, old, epochDay);
+            }
+        }
+    }
+
+    int getSelectedKey() {
+        return selectedKey;
+    }
+
+    /**
+     * select a range of days, used in {@link MonthView#SELECTION_RANGE} mode.
+     * @param start start day; null to clear range.
+     * @param end end day; null if only start is picked.
+     */
+    public void setSelectionRange(CalendarDay start, CalendarDay end) {
+        if(start == null) {
+            setRangeKeys(MonthView.NO_DAY, MonthView.NO_DAY);
+        } else {
+            setRangeKeys(CalendarUtils.toEpochDay(start), end == null ? MonthView.NO_DAY : CalendarUtils.toEpochDay(end));
+        }
+    }
+
+    /**
+     * set range by epoch days, edges are swapped if end is before start.
+     */
+    void setRangeKeys(int start, int end) {
+        if(start != MonthView.NO_DAY && end != MonthView.NO_DAY && end < start) {
+            int temp = start;
+            start = end;
+            end = temp;
+        }
+        int oldStart = rangeStart;
+        int oldEnd = rangeEnd;
+        if(start == oldStart && end == oldEnd)
+            return;
+        rangeStart = start;
+        rangeEnd = end;
+        if(mListeners != null) {
+            for(int i = mListeners.size() - 1; i >= 0; i--) {
+                mListeners.get(i).onRangeChanged(this, oldStart, oldEnd);
+            }
+        }
+    }
+
+    int getRangeStartKey() {
+        return rangeStart;
+    }
+
+    int getRangeEndKey() {
+        return rangeEnd;
+    }
+
+    /**
+     * @return start of range selection; null if not selected.
+     */
+    public CalendarDay getSelectionRangeStart() {
+        return rangeStart == MonthView.NO_DAY ? null : CalendarUtils.fromEpochDay(rangeStart);
+    }
+
+    /**
+     * @return end of range selection; null if not selected.
+     */
+    public CalendarDay getSelectionRangeEnd() {
+        return rangeEnd == MonthView.NO_DAY ? null : CalendarUtils.fromEpochDay(rangeEnd);
+    }
+
+    /**
+     * clear selected day and range.
+     */
+    public void clear() {
+        setSelectedKey(MonthView.NO_DAY);
+        setRangeKeys(MonthView.NO_DAY, MonthView.NO_DAY);
+    }
+
+    public void addOnSelectionChangeListener(OnSelectionChangeListener listener) {
+        if(mListeners == null) {
+            mListeners = new ArrayList<>();
+        }
+        if(!mListeners.contains(listener)) {
+            mListeners.add(listener);
+        }
+    }
+
+    public void removeOnSelectionChangeListener(OnSelectionChangeListener listener) {
+        if(mListeners != null) {
+            mListeners.remove(listener);
+        }
+    }
+
+    /**
+     * @return listeners registered, views register only while attached to window.
+     */
+    int getListenerCount() {
+        return mListeners == null ? 0 : mListeners.size();
+    }
+
+    public interface OnSelectionChangeListener {
+        /**
+         * selected day changed.
+         * @param model SelectionModel
+         * @param oldKey epoch day selected before; Integer.MIN_VALUE if none
+         * @param newKey epoch day selected now; Integer.MIN_VALUE if none
+         */
+        void onSelectionChanged(SelectionModel model, int oldKey, int newKey);
+
+        /**
+         * selected range changed, new edges are read from the model.
+         * @param model SelectionModel
+         * @param oldStart start before; Integer.MIN_VALUE if none
+         * @param oldEnd end before; Integer.MIN_VALUE if none
+         */
+        void onRangeChanged(SelectionModel model, int oldStart, int oldEnd);
+    }
+}
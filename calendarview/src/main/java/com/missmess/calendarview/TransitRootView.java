@@ -2,6 +2,8 @@ package com.missmess.calendarview;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
@@ -94,10 +96,18 @@ public class TransitRootView extends FrameLayout {
         transitView = new MonthView(getContext());
         transitView.showMonthTitle(false);
         transitView.showWeekLabel(false);
-        transitView.setVisibility(View.GONE);
+        // invisible rather than gone, showing it needs no layout
+        transitView.setVisibility(View.INVISIBLE);
         super.addView(transitView);
     }
 
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        // transit view covers this view and is moved by translation while transiting
+        transitView.layout(0, 0, right - left, bottom - top);
+    }
+
     @Override
     public void addView(View child) {
         addView(child, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
@@ -162,7 +172,10 @@ public class TransitRootView extends FrameLayout {
      * should call this to recycle the TransitView
      */
     protected void recycleTransitView() {
-        transitView.setVisibility(View.GONE);
+        transitView.setVisibility(View.INVISIBLE);
+        transitView.clearTransitFrame();
+        transitView.setTranslationX(0);
+        transitView.setTranslationY(0);
     }
 
     public void setOnTransitListener(OnTransitListener listener) {
@@ -200,6 +213,62 @@ public class TransitRootView extends FrameLayout {
         transformer.setHideInterpolator(AnimationUtils.loadInterpolator(getContext(), m2y_interpolator));
     }
 
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState ss = new SavedState(super.onSaveInstanceState());
+        ss.showingChild2 = child2 != null && child2.getVisibility() == View.VISIBLE;
+        return ss;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if(!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState ss = (SavedState) state;
+        super.onRestoreInstanceState(ss.getSuperState());
+        if(child1 == null || child2 == null)
+            return;
+        // show the child visible when saved, a transition in progress is finished at once
+        child1.setVisibility(ss.showingChild2 ? View.GONE : View.VISIBLE);
+        child2.setVisibility(ss.showingChild2 ? View.VISIBLE : View.GONE);
+        child1.setAlpha(1f);
+        child2.setAlpha(1f);
+    }
+
+    // which child is visible
+    static class SavedState extends BaseSavedState {
+        boolean showingChild2;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            showingChild2 = in.readInt() != 0;
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeInt(showingChild2 ? 1 : 0);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
     public void applyShow(int month) {
         if(transformer == null)
             throw new IllegalStateException("call assignView() before this method");
@@ -0,0 +1,80 @@
+package com.missmess.calendarview;
+
+import android.graphics.Bitmap;
+import android.support.v4.util.LruCache;
+
+/**
+ * Size bounded LRU of years pre-rendered by a {@link YearView}. A bitmap is only returned while
+ * its year would still be drawn the same: same width, geometry style (columns and dimensions),
+ * today and decors of that year.
+ */
+final class YearBitmapCache {
+    private final LruCache<Integer, Entry> cache;
+
+    /**
+     * @param maxSizeKb max total size of bitmaps in kilobytes
+     */
+    YearBitmapCache(int maxSizeKb) {
+        cache = new LruCache<Integer, Entry>(maxSizeKb) {
+            @Override
+            protected int sizeOf(Integer year, Entry entry) {
+                return entry.bitmap.getByteCount() / 1024;
+            }
+        };
+    }
+
+    /**
+     * get the bitmap of a year, a bitmap out of date is dropped.
+     * @param year year
+     * @param width width of year
+     * @param styleKey key of month columns and dimensions deciding geometry
+     * @param today today
+     * @param decors decors of YearView
+     * @return bitmap, null if not cached or out of date
+     */
+    Bitmap get(int year, int width, int styleKey, CalendarDay today, DayDecor decors) {
+        Entry entry = cache.get(year);
+        if(entry == null)
+            return null;
+        if(entry.width != width || entry.styleKey != styleKey || entry.todayKey != CalendarUtils.toEpochDay(today)
+                || entry.decors != decors || entry.decorVersion != getDecorVersion(decors, year)) {
+            // grid, today or decors of this year changed since rendered
+            cache.remove(year);
+            return null;
+        }
+        return entry.bitmap;
+    }
+
+    /**
+     * cache a bitmap rendered with these arguments.
+     */
+    void put(int year, Bitmap bitmap, int width, int styleKey, CalendarDay today, DayDecor decors, int decorVersion) {
+        cache.put(year, new Entry(bitmap, width, styleKey, CalendarUtils.toEpochDay(today), decors, decorVersion));
+    }
+
+    void evictAll() {
+        cache.evictAll();
+    }
+
+    static int getDecorVersion(DayDecor decors, int year) {
+        return decors == null ? 0 : decors.getYearVersion(year);
+    }
+
+    private static final class Entry {
+        final Bitmap bitmap;
+        final int width;
+        final int styleKey;
+        final int todayKey;
+        final DayDecor decors;
+        final int decorVersion;
+
+        Entry(Bitmap bitmap, int width, int styleKey, int todayKey, DayDecor decors, int decorVersion) {
+            this.bitmap = bitmap;
+            this.width = width;
+            this.styleKey = styleKey;
+            this.todayKey = todayKey;
+            this.decors = decors;
+            this.decorVersion = decorVersion;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.missmess.calendarview;
+
+import java.util.Locale;
+
+/**
+ * Precomputed data of a year: week rows of each month and lunar header labels. It is immutable and
+ * computed without any View, so {@link YearListView} can prepare it on a background thread before
+ * the year scrolls in, and {@link YearView} uses it instead of computing on the UI thread.
+ */
+final class YearLayout {
+    final int year;
+    final int weekStart;
+    // week rows of each month
+    final int[] monthRows = new int[12];
+    // epoch day of today when computed, lunarDayLabel is only valid for that day
+    final int todayKey;
+    // lunar labels of the header, null if not in china area
+    final String lunarYearLabel;
+    final String lunarDayLabel;
+
+    private YearLayout(int year, int weekStart, CalendarDay today) {
+        this.year = year;
+        this.weekStart = weekStart;
+        for (int i = 1; i <= 12; i++) {
+            monthRows[i - 1] = MonthRenderer.calculateNumRows(year, i, weekStart);
+        }
+        todayKey = CalendarUtils.toEpochDay(today);
+        if(Locale.getDefault().equals(Locale.CHINA)) {
+            if(year == today.getYear() && Lunar.isSupported(today)) {
+                Lunar lunar = new Lunar(today);
+                lunarYearLabel = lunar.cyclical() + lunar.animalsYear() + "年";
+                lunarDayLabel = lunar.getLunarMonthString() + lunar.getLunarDayString();
+            } else {
+                lunarYearLabel = Lunar.cyclical(year) + Lunar.animalsYear(year) + "年";
+                lunarDayLabel = null;
+            }
+        } else {
+            lunarYearLabel = null;
+            lunarDayLabel = null;
+        }
+    }
+
+    /**
+     * compute data of a year, may be called from any thread.
+     * @param year year
+     * @param weekStart first day of week
+     * @param today today
+     * @return YearLayout
+     */
+    static YearLayout compute(int year, int weekStart, CalendarDay today) {
+        return new YearLayout(year, weekStart, today);
+    }
+
+    /**
+     * @param year year
+     * @param weekStart first day of week
+     * @param today today
+     * @return whether this is computed with same arguments
+     */
+    boolean matches(int year, int weekStart, CalendarDay today) {
+        return this.year == year && this.weekStart == weekStart
+                && todayKey == CalendarUtils.toEpochDay(today);
+    }
+}
@@ -0,0 +1,597 @@
+package com.missmess.calendarview;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.support.v4.util.LruCache;
+import android.support.v4.view.ViewCompat;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.widget.OverScroller;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * A vertical endless list of years, each year is a {@link YearView}. Only visible years and a few
+ * prefetched years around them are attached, YearViews scrolled out are recycled for coming
+ * years. Rows and lunar labels of coming years are computed on a background thread, decors are
+ * sliced per year, so memory stays flat however many years are scrolled through.
+ */
+public class YearListView extends ViewGroup {
+    private static final int DEFAULT_PREFETCH_YEARS = 1;
+    // computed layouts and decor slices are kept for this many years at most
+    private static final int YEAR_CACHE_SIZE = 16;
+    private static final int NO_YEAR = Integer.MIN_VALUE;
+
+    private int minYear = CalendarUtils.MIN_YEAR;
+    private int maxYear = CalendarUtils.MAX_YEAR;
+    private int prefetchYears;
+    // year of the first attached child, children are consecutive years
+    private int firstYear;
+    // year to show at top on next layout, NO_YEAR if none
+    private int pendingYear;
+    private int lastNotifiedYear = NO_YEAR;
+    private int weekStart;
+    private CalendarDay today;
+    private DayDecor mDecors;
+
+    private final List<YearView> scrapViews = new ArrayList<>();
+    private final LruCache<Integer, YearLayout> yearLayouts = new LruCache<>(YEAR_CACHE_SIZE);
+    private final LruCache<Integer, DayDecor> decorSlices = new LruCache<>(YEAR_CACHE_SIZE);
+    // years last posted to the bind thread
+    private int requestedFrom = NO_YEAR;
+    private int requestedTo = NO_YEAR;
+    private HandlerThread bindThread;
+    private Handler bindHandler;
+
+    private final OverScroller mScroller;
+    private VelocityTracker mVelocityTracker;
+    private final int mTouchSlop;
+    private final int mMinimumVelocity;
+    private final int mMaximumVelocity;
+    private boolean mIsBeingDragged;
+    private float mLastMotionY;
+    private int mLastFlingY;
+
+    private YearView.OnMonthClickListener mOnMonthClickListener;
+    private YearView.OnDayClickListener mOnDayClickListener;
+    private List<OnYearChangeListener> mChangeListeners;
+
+    public YearListView(Context context) {
+        this(context, null);
+    }
+
+    public YearListView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.YearListView);
+        prefetchYears = typedArray.getInt(R.styleable.YearListView_prefetchYears, DEFAULT_PREFETCH_YEARS);
+        typedArray.recycle();
+
+        today = new CalendarDay(Calendar.getInstance());
+        weekStart = Calendar.getInstance().getFirstDayOfWeek();
+        firstYear = today.getYear();
+        pendingYear = firstYear;
+
+        mScroller = new OverScroller(context);
+        ViewConfiguration configuration = ViewConfiguration.get(context);
+        mTouchSlop = configuration.getScaledTouchSlop();
+        mMinimumVelocity = configuration.getScaledMinimumFlingVelocity();
+        mMaximumVelocity = configuration.getScaledMaximumFlingVelocity();
+    }
+
+    /**
+     * create a YearView for years, override to customize them. Views are reused for other years.
+     * @return YearView
+     */
+    protected YearView createYearView() {
+        return new YearView(getContext());
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if(bindThread != null)
+            return;
+        bindThread = new HandlerThread("YearListView", Process.THREAD_PRIORITY_BACKGROUND);
+        bindThread.start();
+        bindHandler = new Handler(bindThread.getLooper());
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mScroller.abortAnimation();
+        if(bindThread != null) {
+            bindThread.quit();
+            // created again on next attach
+            bindThread = null;
+            bindHandler = null;
+        }
+        requestedFrom = requestedTo = NO_YEAR;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        // children are measured when they are attached in layout
+        setMeasuredDimension(getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec),
+                getDefaultSize(getSuggestedMinimumHeight(), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        int top = getChildCount() > 0 ? getChildAt(0).getTop() : 0;
+        if(pendingYear != NO_YEAR) {
+            recycleAll();
+            firstYear = pendingYear;
+            pendingYear = NO_YEAR;
+            top = 0;
+        }
+        // heights may change with width or a year, stack children again from the first one
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            measureYearView(child);
+            child.layout(0, top, r - l, top + child.getMeasuredHeight());
+            top += child.getMeasuredHeight();
+        }
+        scrollYears(0);
+    }
+
+    private void measureYearView(View child) {
+        child.measure(MeasureSpec.makeMeasureSpec(getWidth(), MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+    }
+
+    /**
+     * scroll content, then attach and recycle years to fill the viewport.
+     * @param dy distance, positive to move content up
+     * @return true if reached the first or last year
+     */
+    private boolean scrollYears(int dy) {
+        if(getHeight() == 0)
+            return true;
+        offsetChildren(-dy);
+        fill();
+        View first = getChildAt(0);
+        View last = getChildAt(getChildCount() - 1);
+        int correction = 0;
+        if(firstYear == minYear && first.getTop() > 0) {
+            correction = -first.getTop();
+        } else if(getLastYear() == maxYear && last.getBottom() < getHeight()) {
+            // do not move the first year below the top
+            correction = Math.min(getHeight() - last.getBottom(), -first.getTop());
+        }
+        if(correction != 0) {
+            offsetChildren(correction);
+            fill();
+        }
+        invalidate();
+        return correction != 0;
+    }
+
+    private void offsetChildren(int offset) {
+        if(offset == 0)
+            return;
+        for (int i = 0; i < getChildCount(); i++) {
+            getChildAt(i).offsetTopAndBottom(offset);
+        }
+    }
+
+    // attach years covering the viewport and prefetch years around them, recycle the others
+    private void fill() {
+        int height = getHeight();
+        if(getChildCount() == 0) {
+            attachYear(false);
+        }
+        while(getLastYear() < maxYear && getChildAt(getChildCount() - 1).getBottom() < height) {
+            attachYear(false);
+        }
+        while(firstYear > minYear && getChildAt(0).getTop() > 0) {
+            attachYear(true);
+        }
+
+        int firstVisible = 0;
+        while(firstVisible < getChildCount() - 1 && getChildAt(firstVisible).getBottom() <= 0) {
+            firstVisible++;
+        }
+        int lastVisible = getChildCount() - 1;
+        while(lastVisible > firstVisible && getChildAt(lastVisible).getTop() >= height) {
+            lastVisible--;
+        }
+        while(firstVisible > prefetchYears) {
+            recycle(getChildAt(0));
+            firstYear++;
+            firstVisible--;
+            lastVisible--;
+        }
+        while(getChildCount() - 1 - lastVisible > prefetchYears) {
+            recycle(getChildAt(getChildCount() - 1));
+        }
+        while(firstVisible < prefetchYears && firstYear > minYear) {
+            attachYear(true);
+            firstVisible++;
+            lastVisible++;
+        }
+        while(getChildCount() - 1 - lastVisible < prefetchYears && getLastYear() < maxYear) {
+            attachYear(false);
+        }
+
+        // years to be attached next
+        requestYearLayouts(Math.max(minYear, firstYear - prefetchYears),
+                Math.min(maxYear, getLastYear() + prefetchYears));
+        dispatchOnYearChange(firstYear + firstVisible);
+    }
+
+    private int getLastYear() {
+        return firstYear + getChildCount() - 1;
+    }
+
+    // attach a year above the first child or below the last child
+    private void attachYear(boolean above) {
+        int year;
+        if(getChildCount() == 0) {
+            year = firstYear;
+        } else {
+            year = above ? firstYear - 1 : getLastYear() + 1;
+        }
+        YearView yearView = obtainYearView(year);
+        addViewInLayout(yearView, above ? 0 : -1, new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT), true);
+        measureYearView(yearView);
+        int height = yearView.getMeasuredHeight();
+        int top;
+        if(getChildCount() == 1) {
+            top = 0;
+        } else if(above) {
+            top = getChildAt(1).getTop() - height;
+            firstYear = year;
+        } else {
+            top = getChildAt(getChildCount() - 2).getBottom();
+        }
+        yearView.layout(0, top, getWidth(), top + height);
+    }
+
+    private YearView obtainYearView(int year) {
+        YearView yearView;
+        if(scrapViews.isEmpty()) {
+            yearView = createYearView();
+            yearView.setOnMonthClickListener(mOnMonthClickListener);
+            yearView.setOnDayClickListener(mOnDayClickListener);
+        } else {
+            yearView = scrapViews.remove(scrapViews.size() - 1);
+        }
+        yearView.setToday(today);
+        yearView.setDecors(getDecorSlice(year));
+        YearLayout layout = yearLayouts.get(year);
+        if(layout != null && layout.matches(year, yearView.getWeekStart(), today)) {
+            yearView.setYearLayout(layout);
+        } else {
+            yearView.setYear(year);
+        }
+        return yearView;
+    }
+
+    private void recycle(View child) {
+        removeViewInLayout(child);
+        scrapViews.add((YearView) child);
+    }
+
+    private void recycleAll() {
+        while(getChildCount() > 0) {
+            recycle(getChildAt(getChildCount() - 1));
+        }
+    }
+
+    // decors of a year, cut on UI thread as DayDecor is not thread safe
+    private DayDecor getDecorSlice(int year) {
+        if(mDecors == null)
+            return null;
+        DayDecor slice = decorSlices.get(year);
+        if(slice == null) {
+            slice = mDecors.slice(CalendarUtils.toEpochDay(year, 1, 1), CalendarUtils.toEpochDay(year, 12, 31));
+            decorSlices.put(year, slice);
+        }
+        return slice;
+    }
+
+    // compute layouts of years on bind thread, requests of years scrolled away are dropped
+    private void requestYearLayouts(int from, int to) {
+        if(bindHandler == null || (from == requestedFrom && to == requestedTo))
+            return;
+        requestedFrom = from;
+        requestedTo = to;
+        bindHandler.removeCallbacksAndMessages(null);
+        for (int year = from; year <= to; year++) {
+            YearLayout layout = yearLayouts.get(year);
+            if(layout != null && layout.matches(year, weekStart, today))
+                continue;
+            final int y = year;
+            final int ws = weekStart;
+            final CalendarDay day = today;
+            bindHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    final YearLayout computed = YearLayout.compute(y, ws, day);
+                    post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onYearLayoutComputed(computed);
+                        }
+                    });
+                }
+            });
+        }
+    }
+
+    private void onYearLayoutComputed(YearLayout layout) {
+        if(!layout.matches(layout.year, weekStart, today))
+            return;
+        yearLayouts.put(layout.year, layout);
+        YearView yearView = getYearView(layout.year);
+        if(yearView != null && layout.matches(layout.year, yearView.getWeekStart(), today)) {
+            // attached before computed, let it use the labels
+            yearView.setYearLayout(layout);
+        }
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(MotionEvent ev) {
+        int action = ev.getActionMasked();
+        if(action == MotionEvent.ACTION_MOVE && mIsBeingDragged)
+            return true;
+        switch (action) {
+            case MotionEvent.ACTION_DOWN:
+                mLastMotionY = ev.getY();
+                // touch on a flinging list stops it and drags
+                mIsBeingDragged = !mScroller.isFinished();
+                mScroller.abortAnimation();
+                obtainVelocityTracker().addMovement(ev);
+                break;
+            case MotionEvent.ACTION_MOVE:
+                obtainVelocityTracker().addMovement(ev);
+                if(Math.abs(ev.getY() - mLastMotionY) > mTouchSlop) {
+                    startDrag(ev.getY());
+                }
+                break;
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                mIsBeingDragged = false;
+                recycleVelocityTracker();
+                break;
+        }
+        return mIsBeingDragged;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent ev) {
+        obtainVelocityTracker().addMovement(ev);
+        switch (ev.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                mLastMotionY = ev.getY();
+                mScroller.abortAnimation();
+                break;
+            case MotionEvent.ACTION_MOVE:
+                float y = ev.getY();
+                if(!mIsBeingDragged && Math.abs(y - mLastMotionY) > mTouchSlop) {
+                    startDrag(y);
+                }
+                if(mIsBeingDragged) {
+                    int dy = (int) (mLastMotionY - y);
+                    // keep the fraction for next move
+                    mLastMotionY -= dy;
+                    scrollYears(dy);
+                }
+                break;
+            case MotionEvent.ACTION_UP:
+                if(mIsBeingDragged) {
+                    mVelocityTracker.computeCurrentVelocity(1000, mMaximumVelocity);
+                    int velocity = (int) mVelocityTracker.getYVelocity();
+                    if(Math.abs(velocity) > mMinimumVelocity) {
+                        fling(-velocity);
+                    }
+                }
+                mIsBeingDragged = false;
+                recycleVelocityTracker();
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                mIsBeingDragged = false;
+                recycleVelocityTracker();
+                break;
+        }
+        return true;
+    }
+
+    private void startDrag(float y) {
+        mIsBeingDragged = true;
+        mLastMotionY = y;
+        ViewParent parent = getParent();
+        if(parent != null) {
+            parent.requestDisallowInterceptTouchEvent(true);
+        }
+    }
+
+    private VelocityTracker obtainVelocityTracker() {
+        if(mVelocityTracker == null) {
+            mVelocityTracker = VelocityTracker.obtain();
+        }
+        return mVelocityTracker;
+    }
+
+    private void recycleVelocityTracker() {
+        if(mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+    }
+
+    private void fling(int velocityY) {
+        mLastFlingY = 0;
+        mScroller.fling(0, 0, 0, velocityY, 0, 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        ViewCompat.postInvalidateOnAnimation(this);
+    }
+
+    @Override
+    public void computeScroll() {
+        if(mScroller.computeScrollOffset()) {
+            int y = mScroller.getCurrY();
+            int dy = y - mLastFlingY;
+            mLastFlingY = y;
+            if(scrollYears(dy)) {
+                mScroller.abortAnimation();
+            } else {
+                ViewCompat.postInvalidateOnAnimation(this);
+            }
+        }
+    }
+
+    private void dispatchOnYearChange(int year) {
+        if(year == lastNotifiedYear)
+            return;
+        lastNotifiedYear = year;
+        if(mChangeListeners != null) {
+            for(OnYearChangeListener listener : mChangeListeners) {
+                listener.onYearChange(this, year);
+            }
+        }
+    }
+
+    /**
+     * scroll to show a year at top.
+     * @param year year
+     */
+    public void setYear(int year) {
+        mScroller.abortAnimation();
+        pendingYear = Math.max(minYear, Math.min(maxYear, year));
+        requestLayout();
+    }
+
+    /**
+     * set range of years in list.
+     * @param minYear first year
+     * @param maxYear last year
+     */
+    public void setYearRange(int minYear, int maxYear) {
+        CalendarUtils.checkYear(minYear);
+        CalendarUtils.checkYear(maxYear);
+        if(minYear > maxYear) {
+            throw new IllegalArgumentException("minYear cannot larger than maxYear");
+        }
+        this.minYear = minYear;
+        this.maxYear = maxYear;
+        // keep top year in range
+        setYear(getFirstVisibleYear());
+    }
+
+    /**
+     * @return first visible year
+     */
+    public int getFirstVisibleYear() {
+        for (int i = 0; i < getChildCount(); i++) {
+            if(getChildAt(i).getBottom() > 0)
+                return firstYear + i;
+        }
+        return pendingYear != NO_YEAR ? pendingYear : firstYear;
+    }
+
+    /**
+     * get the attached YearView showing a year.
+     * @param year year
+     * @return YearView, null if the year is not attached
+     */
+    public YearView getYearView(int year) {
+        int index = year - firstYear;
+        if(index < 0 || index >= getChildCount())
+            return null;
+        return (YearView) getChildAt(index);
+    }
+
+    /**
+     * how many years are kept attached beyond visible years on each side.
+     * @param prefetchYears years, 0 to attach visible years only
+     */
+    public void setPrefetchYears(int prefetchYears) {
+        this.prefetchYears = Math.max(0, prefetchYears);
+        requestLayout();
+    }
+
+    public void setToday(CalendarDay today) {
+        this.today = today;
+        // lunar labels of today's year are out of date
+        yearLayouts.evictAll();
+        requestedFrom = requestedTo = NO_YEAR;
+        for (int i = 0; i < getChildCount(); i++) {
+            ((YearView) getChildAt(i)).setToday(today);
+        }
+        requestLayout();
+    }
+
+    /**
+     * set decors of all years. Call it again after changing decors, each year only keeps its
+     * own part of them.
+     * @param decors DayDecor
+     */
+    public void setDecors(DayDecor decors) {
+        mDecors = decors;
+        decorSlices.evictAll();
+        for (int i = 0; i < getChildCount(); i++) {
+            ((YearView) getChildAt(i)).setDecors(getDecorSlice(firstYear + i));
+        }
+    }
+
+    public DayDecor getDecors() {
+        return mDecors;
+    }
+
+    public void setOnMonthClickListener(YearView.OnMonthClickListener onMonthClickListener) {
+        mOnMonthClickListener = onMonthClickListener;
+        for (int i = 0; i < getChildCount(); i++) {
+            ((YearView) getChildAt(i)).setOnMonthClickListener(onMonthClickListener);
+        }
+        for (YearView yearView : scrapViews) {
+            yearView.setOnMonthClickListener(onMonthClickListener);
+        }
+    }
+
+    public void setOnDayClickListener(YearView.OnDayClickListener onDayClickListener) {
+        mOnDayClickListener = onDayClickListener;
+        for (int i = 0; i < getChildCount(); i++) {
+            ((YearView) getChildAt(i)).setOnDayClickListener(onDayClickListener);
+        }
+        for (YearView yearView : scrapViews) {
+            yearView.setOnDayClickListener(onDayClickListener);
+        }
+    }
+
+    /**
+     * add a listener to listen first visible year changed event
+     * @param listener listener
+     */
+    public void addOnYearChangeListener(OnYearChangeListener listener) {
+        if (mChangeListeners == null) {
+            mChangeListeners = new ArrayList<>();
+        }
+        mChangeListeners.add(listener);
+    }
+
+    public void removeOnYearChangeListener(OnYearChangeListener listener) {
+        if (mChangeListeners != null) {
+            mChangeListeners.remove(listener);
+        }
+    }
+
+    public interface OnYearChangeListener {
+        /**
+         * first visible year has changed
+         * @param yearListView YearListView
+         * @param year first visible year
+         */
+        void onYearChange(YearListView yearListView, int year);
+    }
+}
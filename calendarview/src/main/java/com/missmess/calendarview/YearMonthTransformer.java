@@ -2,17 +2,14 @@ package com.missmess.calendarview;
 
 import android.animation.Animator;
 import android.animation.AnimatorSet;
-import android.animation.ArgbEvaluator;
 import android.animation.ObjectAnimator;
-import android.animation.PropertyValuesHolder;
 import android.animation.TimeInterpolator;
-import android.animation.TypeEvaluator;
+import android.animation.ValueAnimator;
+import android.graphics.Rect;
 import android.view.View;
-import android.view.ViewGroup;
 import android.view.ViewTreeObserver;
 import android.view.animation.AccelerateInterpolator;
 import android.view.animation.DecelerateInterpolator;
-import android.widget.FrameLayout;
 
 import com.missmess.calendarview.TransitRootView.OnTransitListener;
 
@@ -45,6 +42,7 @@ final class YearMonthTransformer {
     private boolean mvShowMonthTitle; //original month showing status
     private boolean mvShowWeekLabel; //before anim, week showing status
     private boolean animating = false; //indicate transit process
+    private boolean layeredRoots = false; //root children promoted to hardware layers
     private final MonthViewObserver monthViewObserver;
     private final AnimTransiter mTransiter;
 
@@ -131,8 +129,8 @@ final class YearMonthTransformer {
 
         // init data
         animating = true;
-        mvShowMonthTitle = mMonthView.mShowMonthTitle;
-        mvShowWeekLabel = mMonthView.mShowWeekLabel;
+        mvShowMonthTitle = mMonthView.isShowMonthTitle();
+        mvShowWeekLabel = mMonthView.isShowWeekLabel();
         if(mMonthViewPager != null) {
             passPropertyY2MVP(mYearView, mMonthViewPager, month);
         } else {
@@ -150,16 +148,18 @@ final class YearMonthTransformer {
     }
 
     private void transitShow(int month) {
-        MonthView child = (MonthView) mYearView.getChildAt(month - 1);
+        Rect monthRect = mYearView.getMonthRect(month, false);
         // screen position
         int[] fromLocation = new int[2];
-        child.getLocationOnScreen(fromLocation);
+        mYearView.getLocationOnScreen(fromLocation);
+        fromLocation[0] += monthRect.left;
+        fromLocation[1] += monthRect.top;
         int[] parentLocation = new int[2];
         mRootView.getLocationOnScreen(parentLocation);
         int[] toLocation = new int[2];
         mMonthView.getLocationOnScreen(toLocation);
         // label height of MonthView
-        int labelHeight = mMonthView.MONTH_HEADER_HEIGHT + mMonthView.WEEK_LABEL_HEIGHT;
+        int labelHeight = mMonthView.getMonthHeaderHeight() + mMonthView.getWeekLabelHeight();
         int padding = mMonthView.getPaddingLeft();
 
         // calculate original position
@@ -169,24 +169,17 @@ final class YearMonthTransformer {
         int finL = toLocation[0] - parentLocation[0] + padding;
         int finT = toLocation[1] - parentLocation[1] + labelHeight;
 
+        setRootLayers(true);
         MonthView transitView = mRootView.useTransitView();
         passPropertyY2M(mYearView, transitView, month);
-        // 1-7
-        ObjectAnimator propertyAnim = createMonthPropertyAnimator(child, mMonthView, transitView);
-        // 8 LayoutParams
-        FrameLayout.LayoutParams oriLps = new FrameLayout.LayoutParams(child.getWidth(), child.getHeight());
-        oriLps.setMargins(oriL, oriT, 0, 0);
-        FrameLayout.LayoutParams finLps = new FrameLayout.LayoutParams(mMonthView.getWidth() - 2 * padding, mMonthView.getHeight() - labelHeight);
-        finLps.setMargins(finL, finT, 0, 0);
-        ViewGroup.LayoutParams rubbish = new ViewGroup.LayoutParams(0, 0);
-        ObjectAnimator positionAnim = ObjectAnimator.ofObject(transitView, "layoutParams", new LpsEvaluator(oriLps, finLps), rubbish, rubbish);
-
-        AnimatorSet animSet = new AnimatorSet();
-        animSet.playTogether(propertyAnim, positionAnim);
-        int transitDuration = obtainTransitAnimDuration(Math.abs(finT - oriT), child.getHeight());
-        animSet.setDuration(transitDuration);
-        animSet.setInterpolator(showInterpolator);
-        animSet.addListener(new DelayAnimListener(y_duration) {
+        Rect oriRect = new Rect(oriL, oriT, oriL + monthRect.width(), oriT + monthRect.height());
+        Rect finRect = new Rect(finL, finT, finL + mMonthView.getWidth() - 2 * padding, finT + mMonthView.getHeight() - labelHeight);
+        ValueAnimator transitAnim = createTransitAnimator(transitView, oriRect, finRect,
+                getMonthProperties(mYearView), getMonthProperties(mMonthView));
+        int transitDuration = obtainTransitAnimDuration(Math.abs(finT - oriT), monthRect.height());
+        transitAnim.setDuration(transitDuration);
+        transitAnim.setInterpolator(showInterpolator);
+        transitAnim.addListener(new DelayAnimListener(y_duration) {
             @Override
             public void onStart(Animator animator) {
                 // transit start
@@ -208,6 +201,7 @@ final class YearMonthTransformer {
                 mRootView.setReceiveEvent(true);
                 mRootView.recycleTransitView();
                 rootChild2.setAlpha(1);
+                setRootLayers(false);
                 animating = false;
                 // anim other views
                 mTransiter.setDuration(m_duration);
@@ -220,7 +214,7 @@ final class YearMonthTransformer {
                 animShowLabel();
             }
         });
-        animSet.start();
+        transitAnim.start();
     }
 
     private void animShowIndicator(AnimTransiter transiter) {
@@ -246,7 +240,7 @@ final class YearMonthTransformer {
         ObjectAnimator weekAnim = null;
 
         if (mvShowMonthTitle) {
-            int sMonthOffset = -mMonthView.MONTH_HEADER_HEIGHT;
+            int sMonthOffset = -mMonthView.getMonthHeaderHeight();
             // delay start should initial its position
             mMonthView.setMonthLabelOffset(sMonthOffset);
             // 1
@@ -255,7 +249,7 @@ final class YearMonthTransformer {
             monthAnim.setStartDelay(mvShowWeekLabel ? LABEL_ANIM_OFFSET : 0);
         }
         if (mvShowWeekLabel) {
-            int sWeekOffset = -2 * mMonthView.WEEK_LABEL_HEIGHT;
+            int sWeekOffset = -2 * mMonthView.getWeekLabelHeight();
             // 2
             weekAnim = ObjectAnimator.ofInt(mMonthView, "weekLabelOffset", sWeekOffset, 0);
             weekAnim.setDuration(m_duration);
@@ -288,13 +282,13 @@ final class YearMonthTransformer {
         ObjectAnimator weekAnim = null;
 
         if (mvShowMonthTitle) {
-            int sMonthOffset = -mMonthView.MONTH_HEADER_HEIGHT;
+            int sMonthOffset = -mMonthView.getMonthHeaderHeight();
             // 1
             monthAnim = ObjectAnimator.ofInt(mMonthView, "monthLabelOffset", 0, sMonthOffset);
             monthAnim.setDuration(m_duration - 2 * LABEL_ANIM_OFFSET);
         }
         if (mvShowWeekLabel) {
-            int sWeekOffset = -2 * mMonthView.WEEK_LABEL_HEIGHT;
+            int sWeekOffset = -2 * mMonthView.getWeekLabelHeight();
             // 2
             weekAnim = ObjectAnimator.ofInt(mMonthView, "weekLabelOffset", 0, sWeekOffset);
             weekAnim.setDuration(m_duration - LABEL_ANIM_OFFSET);
@@ -342,16 +336,18 @@ final class YearMonthTransformer {
     }
 
     private void transitHide() {
-        MonthView child = (MonthView) mYearView.getChildAt(mMonthView.getCurrentMonth().getMonth() - 1);
+        Rect monthRect = mYearView.getMonthRect(mMonthView.getCurrentMonth().getMonth(), false);
         // screen position
         int[] fromLocation = new int[2];
         mMonthView.getLocationOnScreen(fromLocation);
         int[] toLocation = new int[2];
-        child.getLocationOnScreen(toLocation);
+        mYearView.getLocationOnScreen(toLocation);
+        toLocation[0] += monthRect.left;
+        toLocation[1] += monthRect.top;
         int[] parentLocation = new int[2];
         mRootView.getLocationOnScreen(parentLocation);
         // label height of MonthView
-        int labelHeight = mMonthView.MONTH_HEADER_HEIGHT + mMonthView.WEEK_LABEL_HEIGHT;
+        int labelHeight = mMonthView.getMonthHeaderHeight() + mMonthView.getWeekLabelHeight();
         int padding = mMonthView.getPaddingLeft();
 
         // calculate original position
@@ -361,25 +357,17 @@ final class YearMonthTransformer {
         int finL = toLocation[0] - parentLocation[0];
         int finT = toLocation[1] - parentLocation[1];
 
+        setRootLayers(true);
         MonthView transitView = mRootView.useTransitView();
         passPropertyM2M(mMonthView, transitView);
-
-        // 1-7
-        ObjectAnimator animators = createMonthPropertyAnimator(mMonthView, child, transitView);
-        // 8 LayoutParams
-        FrameLayout.LayoutParams oriLps = new FrameLayout.LayoutParams(mMonthView.getWidth() - 2 * padding, mMonthView.getHeight() - labelHeight);
-        oriLps.setMargins(oriL, oriT, 0, 0);
-        FrameLayout.LayoutParams finLps = new FrameLayout.LayoutParams(child.getWidth(), child.getHeight());
-        finLps.setMargins(finL, finT, 0, 0);
-        ViewGroup.LayoutParams rubbish = new ViewGroup.LayoutParams(0, 0);
-        ObjectAnimator positionAnim = ObjectAnimator.ofObject(transitView, "layoutParams", new LpsEvaluator(oriLps, finLps), rubbish, rubbish);
-
-        AnimatorSet animSet = new AnimatorSet();
-        animSet.playTogether(animators, positionAnim);
-        int transitDuration = obtainTransitAnimDuration(Math.abs(finT - oriT), child.getHeight());
-        animSet.setDuration(transitDuration);
-        animSet.setInterpolator(hideInterpolator);
-        animSet.addListener(new Animator.AnimatorListener() {
+        Rect oriRect = new Rect(oriL, oriT, oriL + mMonthView.getWidth() - 2 * padding, oriT + mMonthView.getHeight() - labelHeight);
+        Rect finRect = new Rect(finL, finT, finL + monthRect.width(), finT + monthRect.height());
+        ValueAnimator transitAnim = createTransitAnimator(transitView, oriRect, finRect,
+                getMonthProperties(mMonthView), getMonthProperties(mYearView));
+        int transitDuration = obtainTransitAnimDuration(Math.abs(finT - oriT), monthRect.height());
+        transitAnim.setDuration(transitDuration);
+        transitAnim.setInterpolator(hideInterpolator);
+        transitAnim.addListener(new Animator.AnimatorListener() {
             @Override
             public void onAnimationStart(Animator animation) {
             }
@@ -397,6 +385,7 @@ final class YearMonthTransformer {
                     public void run() {
                         mRootView.setReceiveEvent(true);
                         mRootView.recycleTransitView();
+                        setRootLayers(false);
 
                         animating = false;
                     }
@@ -413,7 +402,27 @@ final class YearMonthTransformer {
 
             }
         });
-        animSet.start();
+        transitAnim.start();
+    }
+
+    /**
+     * while transit view moves, root children only change alpha, so draw them from hardware
+     * layers instead of re-rendering their view trees every frame.
+     */
+    private void setRootLayers(boolean layered) {
+        if(layered) {
+            if(layeredRoots || !mRootView.isHardwareAccelerated()
+                    || rootChild1.getLayerType() != View.LAYER_TYPE_NONE
+                    || rootChild2.getLayerType() != View.LAYER_TYPE_NONE)
+                return;
+            rootChild1.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            rootChild2.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            layeredRoots = true;
+        } else if(layeredRoots) {
+            rootChild1.setLayerType(View.LAYER_TYPE_NONE, null);
+            rootChild2.setLayerType(View.LAYER_TYPE_NONE, null);
+            layeredRoots = false;
+        }
     }
 
     private int obtainTransitAnimDuration(int transitT, int childHeight) {
@@ -438,8 +447,8 @@ final class YearMonthTransformer {
 
         // init data
         animating = true;
-        mvShowMonthTitle = mMonthView.mShowMonthTitle;
-        mvShowWeekLabel = mMonthView.mShowWeekLabel;
+        mvShowMonthTitle = mMonthView.isShowMonthTitle();
+        mvShowWeekLabel = mMonthView.isShowWeekLabel();
         if(mMonthViewPager != null) {
             passPropertyMVP2Y(mMonthViewPager, mYearView);
         } else {
@@ -492,25 +501,42 @@ final class YearMonthTransformer {
         yearView.setToday(monthViewPager.getCurrentChild().today);
     }
 
-    private ObjectAnimator createMonthPropertyAnimator(MonthView start, MonthView end, MonthView target) {
-        // animators
-        ArgbEvaluator argbEvaluator = new ArgbEvaluator();
-        // 7 properties
-        int property1 = start.normalDayTextColor;
-        PropertyValuesHolder pvh1 = PropertyValuesHolder.ofObject("normalDayTextColor", argbEvaluator, property1, end.normalDayTextColor);
-        int property2 = start.normalDayTextSize;
-        PropertyValuesHolder pvh2 = PropertyValuesHolder.ofInt("normalDayTextSize", property2, end.normalDayTextSize);
-        int property3 = start.dayCircleRadius;
-        PropertyValuesHolder pvh3 = PropertyValuesHolder.ofInt("dayCircleRadius", property3, end.dayCircleRadius);
-        int property4 = start.dayRowHeight;
-        PropertyValuesHolder pvh4 = PropertyValuesHolder.ofInt("dayRowHeight", property4, end.dayRowHeight);
-//        int property5 = start.decorTextColor;
-//        PropertyValuesHolder pvh5 = PropertyValuesHolder.ofObject("decorTextColor", argbEvaluator, property5, end.decorTextColor);
-//        int property6 = start.todayCircleBgColor;
-//        PropertyValuesHolder pvh6 = PropertyValuesHolder.ofObject("todayCircleBgColor", argbEvaluator, property6, end.todayCircleBgColor);
-//        int property7 = start.todayTextColor;
-//        PropertyValuesHolder pvh7 = PropertyValuesHolder.ofObject("todayTextColor", argbEvaluator, property7, end.todayTextColor);
-        return ObjectAnimator.ofPropertyValuesHolder(target, pvh1, pvh2, pvh3, pvh4);
+    // day text color, day text size, circle radius and row height of months
+    private int[] getMonthProperties(MonthView monthView) {
+        return new int[] {monthView.getNormalDayTextColor(), monthView.getNormalDayTextSize(),
+                monthView.getDayCircleRadius(), monthView.getDayRowHeight()};
+    }
+
+    private int[] getMonthProperties(YearView yearView) {
+        return new int[] {yearView.dayLabelTextColor, yearView.DAY_LABEL_TEXT_SIZE,
+                yearView.DAY_LABEL_CIRCLE_RADIUS, yearView.dayRowHeight};
+    }
+
+    /**
+     * move transit view from one rect to another by translation, and interpolate size and day
+     * state of its days in renderer. A frame never measures or lays out views.
+     */
+    private ValueAnimator createTransitAnimator(final MonthView transitView, final Rect from, final Rect to,
+                                                final int[] fromState, final int[] toState) {
+        ValueAnimator animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                float fraction = (float) animation.getAnimatedValue();
+                applyTransitFrame(transitView, from, to, fromState, toState, fraction);
+            }
+        });
+        // first frame before animator starts
+        applyTransitFrame(transitView, from, to, fromState, toState, 0f);
+        return animator;
+    }
+
+    private void applyTransitFrame(MonthView transitView, Rect from, Rect to, int[] fromState, int[] toState, float fraction) {
+        transitView.setTranslationX(from.left + (to.left - from.left) * fraction);
+        transitView.setTranslationY(from.top + (to.top - from.top) * fraction);
+        int width = Math.round(from.width() + (to.width() - from.width()) * fraction);
+        int height = Math.round(from.height() + (to.height() - from.height()) * fraction);
+        transitView.setTransitFrame(width, height, fromState, toState, fraction);
     }
 
     class MonthViewObserver implements ViewTreeObserver.OnGlobalLayoutListener {
@@ -539,30 +565,4 @@ final class YearMonthTransformer {
             rootChild2.getViewTreeObserver().removeGlobalOnLayoutListener(this);
         }
     }
-
-    class LpsEvaluator implements TypeEvaluator<ViewGroup.LayoutParams> {
-        private FrameLayout.LayoutParams start;
-        private FrameLayout.LayoutParams end;
-        private FrameLayout.LayoutParams lps;
-
-        public LpsEvaluator(FrameLayout.LayoutParams start, FrameLayout.LayoutParams end) {
-            this.start = start;
-            this.end = end;
-            lps = new FrameLayout.LayoutParams(0, 0);
-        }
-
-        @Override
-        public ViewGroup.LayoutParams evaluate(float t, ViewGroup.LayoutParams startValue, ViewGroup.LayoutParams endValue) {
-            float width = (float)start.width + ((float)end.width - (float)start.width) * t;
-            float height = (float)start.height + ((float)end.height - (float)start.height) * t;
-            float leftMargin = (float)start.leftMargin + ((float)end.leftMargin - (float)start.leftMargin) * t;
-            float topMargin = (float)start.topMargin + ((float)end.topMargin - (float)start.topMargin) * t;
-
-            lps.width = (int) width;
-            lps.height = (int) height;
-            lps.leftMargin = (int) leftMargin;
-            lps.topMargin = (int) topMargin;
-            return lps;
-        }
-    }
 }
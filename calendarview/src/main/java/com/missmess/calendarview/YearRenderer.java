@@ -0,0 +1,303 @@
+package com.missmess.calendarview;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import java.text.DateFormatSymbols;
+import java.util.Locale;
+
+import static com.missmess.calendarview.YearView.COLUMNS_AUTO;
+
+/**
+ * Geometry and drawing of a year (header, month labels and days) onto any Canvas, without a
+ * View. {@link YearView} measures and draws with one instance; a copy with its own paints and
+ * {@link MonthRenderer} can draw another year on a background thread.
+ */
+class YearRenderer {
+    // dimensions, copied from YearView
+    int yearHeaderTextHeight;
+    int yearHeaderLunarTextSize;
+    int monthHeaderHeight;
+    int monthLabelTextSize;
+    int padding;
+    int lineSpacingBetweenYearAndMonth;
+    int daysInWeek = 7;
+    boolean showYearLabel;
+    boolean showYearLunarLabel;
+    // configured columns of months, or COLUMNS_AUTO
+    int columns = 3;
+    // narrowest month when choosing columns automatically
+    int minMonthWidth;
+
+    Paint yearHeaderTextPaint;
+    Paint yearHeaderLunarTextPaint;
+    Paint yearHeaderDashPaint;
+    Paint dividerPaint;
+    Paint monthLabelTextPaint;
+    // draws days of months, null when months are child views
+    MonthRenderer monthRenderer;
+
+    int year;
+    CalendarDay today;
+    // precomputed rows and lunar labels, may be null
+    YearLayout yearLayout;
+    int weekStart;
+
+    // header labels of (labelsYear, labelsTodayKey, labelsLocale), not computed while drawing
+    String yearLabel;
+    // null if not shown
+    String lunarYearLabel;
+    // null if year is not today's year
+    String lunarDayLabel;
+    private int labelsYear = Integer.MIN_VALUE;
+    private int labelsTodayKey;
+    private Locale labelsLocale;
+
+    // geometry
+    int width;
+    // resolved columns and rows of months
+    int columnCount = 3;
+    int rowCount = 4;
+    // bounds of days of each month
+    final Rect[] monthBounds = new Rect[12];
+    final int[] monthHeights = new int[12];
+    int[] monthRowHeight = new int[4];
+    // month labels and their baseline positions
+    final String[] monthLabels = new String[12];
+    final int[] monthLabelX = new int[12];
+    final int[] monthLabelY = new int[12];
+    int height;
+
+    YearRenderer() {
+        for (int i = 0; i < 12; i++) {
+            monthBounds[i] = new Rect();
+        }
+    }
+
+    /**
+     * set year and today to draw, header labels are computed here if they changed.
+     * @param year year
+     * @param today today
+     */
+    void setYearAndToday(int year, CalendarDay today) {
+        this.year = year;
+        this.today = today;
+        updateHeaderLabels();
+    }
+
+    /**
+     * compute header labels if year, today or default locale changed since last computed.
+     */
+    void updateHeaderLabels() {
+        Locale locale = Locale.getDefault();
+        int todayKey = CalendarUtils.toEpochDay(today);
+        if(year == labelsYear && todayKey == labelsTodayKey && locale.equals(labelsLocale))
+            return;
+        labelsYear = year;
+        labelsTodayKey = todayKey;
+        labelsLocale = locale;
+
+        boolean chinaArea = locale.equals(Locale.CHINA);
+        yearLabel = chinaArea ? year + "年" : year + "";
+        lunarYearLabel = null;
+        lunarDayLabel = null;
+        if (showYearLunarLabel && chinaArea) { //显示农历
+            YearLayout layout = getBoundLayout();
+            if (layout != null && layout.lunarYearLabel != null) { //已预先计算
+                lunarYearLabel = layout.lunarYearLabel;
+                lunarDayLabel = layout.lunarDayLabel;
+            } else if (year == today.getYear() && Lunar.isSupported(today)) { //显示年=今年
+                Lunar lunar = new Lunar(today);
+                lunarYearLabel = lunar.cyclical() + lunar.animalsYear() + "年";
+                lunarDayLabel = lunar.getLunarMonthString() + lunar.getLunarDayString();
+            } else {
+                lunarYearLabel = Lunar.cyclical(year) + Lunar.animalsYear(year) + "年";
+            }
+        }
+    }
+
+    /**
+     * compute height of each month with month renderer, or bound year layout if valid.
+     */
+    void measureMonths() {
+        YearLayout layout = getBoundLayout();
+        for (int i = 1; i <= 12; i++) {
+            if(layout != null) {
+                // rows were computed ahead
+                monthHeights[i - 1] = monthRenderer.getHeightWithRows(layout.monthRows[i - 1]);
+            } else {
+                monthRenderer.setMonth(year, i);
+                monthHeights[i - 1] = monthRenderer.getShouldHeight();
+            }
+        }
+    }
+
+    /**
+     * resolve columns for a width, then compute rows, month bounds and label positions from month
+     * heights.
+     * @param width width of year
+     * @return height of year
+     */
+    int computeGeometry(int width) {
+        setWidth(width);
+        if(monthRowHeight.length != rowCount) {
+            monthRowHeight = new int[rowCount];
+        }
+        for (int row = 0; row < rowCount; row++) {
+            int maxHeight = 0;
+            for (int column = 0; column < columnCount; column++) {
+                maxHeight = Math.max(maxHeight, monthHeights[row * columnCount + column]);
+            }
+            monthRowHeight[row] = maxHeight + monthHeaderHeight;
+        }
+
+        String[] shortMonths = DateFormatSymbols.getInstance().getShortMonths();
+        int pad = getColumnPadding();
+        int monthWidth = getSingleMonthWidth();
+        int rowTop = yearHeaderTextHeight + lineSpacingBetweenYearAndMonth;
+        for (int i = 0; i < 12; i++) {
+            int row = i / columnCount;
+            int column = i % columnCount;
+            int x = pad + column * (monthWidth + pad);
+            int y = rowTop + monthHeaderHeight;
+            monthBounds[i].set(x, y, x + monthWidth, y + monthHeights[i]);
+
+            monthLabels[i] = shortMonths[i];
+            monthLabelX[i] = x + (int) (monthLabelTextPaint.measureText(shortMonths[i]) / 2f) + padding * 2;
+            monthLabelY[i] = rowTop + (monthHeaderHeight + monthLabelTextSize) / 2;
+            if (column == columnCount - 1) {
+                rowTop += monthRowHeight[row];
+            }
+        }
+        height = rowTop;
+        return height;
+    }
+
+    /**
+     * set width and resolve columns of months for it.
+     * @param width width of year
+     */
+    void setWidth(int width) {
+        this.width = width;
+        columnCount = columns;
+        if(columns == COLUMNS_AUTO) {
+            // as many columns as months are still wide enough
+            columnCount = 2;
+            for (int c : YearView.AUTO_COLUMNS) {
+                if(getSingleMonthWidth(c) >= minMonthWidth) {
+                    columnCount = c;
+                    break;
+                }
+            }
+        }
+        rowCount = 12 / columnCount;
+    }
+
+    int getSingleMonthWidth() {
+        return getSingleMonthWidth(columnCount);
+    }
+
+    int getColumnPadding() {
+        return getColumnPadding(columnCount);
+    }
+
+    private int getSingleMonthWidth(int columns) {
+        int pad = getColumnPadding(columns);
+        return (width - (columns + 1) * pad) / columns;
+    }
+
+    // gaps around columns, (columns + 1) gaps take a day of width each
+    private int getColumnPadding(int columns) {
+        return (width - 2 * padding) / ((columns + 1) * daysInWeek) - padding;
+    }
+
+    // bound data if it is still valid for current year, week start and today
+    YearLayout getBoundLayout() {
+        if(yearLayout != null && yearLayout.matches(year, weekStart, today))
+            return yearLayout;
+        return null;
+    }
+
+    void draw(Canvas canvas) {
+        if(showYearLabel) {
+            drawYearHeaderLabels(canvas);
+        }
+        drawMonthTitle(canvas);
+        if(monthRenderer != null) {
+            drawMonths(canvas);
+        }
+    }
+
+    private void drawMonths(Canvas canvas) {
+        for (int i = 1; i <= 12; i++) {
+            monthRenderer.setMonth(year, i);
+            monthRenderer.drawDays(canvas, monthBounds[i - 1]);
+        }
+    }
+
+    private void drawYearHeaderLabels(Canvas canvas) {
+        if(yearHeaderTextHeight == 0)
+            return;
+        int y = (4 * yearHeaderTextHeight) / 5;
+        canvas.drawText(yearLabel, 2 * padding, y, yearHeaderTextPaint);
+
+        if (lunarYearLabel != null) { //显示农历
+            if (lunarDayLabel != null) {
+                //显示当前日的农历日
+                yearHeaderDashPaint.setStrokeWidth((float) 2.0);
+                canvas.drawLine(width - 5 * yearHeaderLunarTextSize - 2
+                        * padding, (7 * y) / 8, width - 5
+                        * yearHeaderLunarTextSize, (7 * y) / 8, yearHeaderDashPaint);
+                canvas.drawText(lunarDayLabel, width - 2 * padding, y,
+                        yearHeaderLunarTextPaint);
+            }
+
+            //显示当前年的农历年
+            yearHeaderDashPaint.setStrokeWidth((float) 4.0);
+            canvas.drawLine(width - 5 * yearHeaderLunarTextSize - 2
+                    * padding, (3 * y) / 8, width - 5
+                    * yearHeaderLunarTextSize, (3 * y) / 8, yearHeaderDashPaint);
+            canvas.drawText(lunarYearLabel, width - 2
+                    * padding, y / 2, yearHeaderLunarTextPaint);
+        }
+
+        canvas.drawLine(2 * padding, yearHeaderTextHeight, width,
+                yearHeaderTextHeight, dividerPaint);
+    }
+
+    private void drawMonthTitle(Canvas canvas) {
+        for (int i = 0; i < 12; i++) {
+            canvas.drawText(monthLabels[i], monthLabelX[i], monthLabelY[i], monthLabelTextPaint);
+        }
+    }
+
+    /**
+     * month (1 - 12) at location including its label, 0 if none. computed from the grid.
+     * @param x x
+     * @param y y
+     * @return month
+     */
+    int getMonthIndexAt(int x, int y) {
+        int pad = getColumnPadding();
+        int monthWidth = getSingleMonthWidth();
+        if(x < pad || monthWidth <= 0)
+            return 0;
+        int column = (x - pad) / (monthWidth + pad);
+        if(column >= columnCount || x - pad - column * (monthWidth + pad) >= monthWidth)
+            // in gap between columns
+            return 0;
+        int rowTop = yearHeaderTextHeight + lineSpacingBetweenYearAndMonth;
+        if(y < rowTop)
+            return 0;
+        for(int row = 0; row < monthRowHeight.length; row++) {
+            if(y < rowTop + monthRowHeight[row]) {
+                int month = row * columnCount + column + 1;
+                // rows are as high as the highest month of the row
+                return y < monthBounds[month - 1].bottom ? month : 0;
+            }
+            rowTop += monthRowHeight[row];
+        }
+        return 0;
+    }
+}
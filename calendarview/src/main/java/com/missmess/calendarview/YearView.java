@@ -3,23 +3,33 @@ package com.missmess.calendarview;
 import android.content.Context;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Paint.Align;
 import android.graphics.Paint.Style;
 import android.graphics.Rect;
+import android.os.AsyncTask;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.v4.view.ViewCompat;
 import android.util.AttributeSet;
 import android.view.LayoutInflater;
 import android.view.MotionEvent;
-import android.view.View;
 import android.view.ViewGroup;
 
-import java.text.DateFormatSymbols;
 import java.util.Calendar;
 import java.util.Locale;
 
 public class YearView extends ViewGroup {
+    /**
+     * choose columns of months by width, see {@link #setMonthColumns(int)}
+     */
+    public static final int COLUMNS_AUTO = 0;
+    // candidates of auto columns, most first
+    static final int[] AUTO_COLUMNS = {6, 4, 3, 2};
+
     protected int DAY_LABEL_CIRCLE_RADIUS;
     protected int MONTH_HEADER_HEIGHT;
     protected int YEAR_HEADER_TEXT_HEIGHT;
@@ -55,23 +65,74 @@ public class YearView extends ViewGroup {
 
     private boolean showYearLabel;
     private boolean showYearLunarLabel;
+    private int monthColumns;
 
     private OnMonthClickListener mOnMonthClickListener;
+    private OnDayClickListener mOnDayClickListener;
     private float downX;
     private float downY;
-    private int[] monthRowHeight = new int[4];
     private DayDecor mDecors;
+    private DayHeatmap mHeatmap;
+    // selected day shared with other views, drawn by months
+    private SelectionModel mSelectionModel = new SelectionModel();
+    // redraws changed months in flatten mode, children listen by themselves otherwise
+    private SelectionObserver selectionObserver;
+    // draw months directly instead of hosting 12 MonthView children
+    private boolean flattenMonths;
+    // geometry and drawing of the year
+    private YearRenderer yearRenderer;
+    // shared by all months in flatten mode
+    private MonthRenderer monthRenderer;
+    // key of cached month geometry, months are re-measured only when it changes
+    private int cachedYear = Integer.MIN_VALUE;
+    private int cachedWidth = -1;
+    private int cachedStyleKey;
+    private int cachedHeight;
+    // how many times months were measured, for tests
+    private int monthMeasureCount;
+    private int weekStart;
+    // render adjacent years into bitmaps off UI thread, only in flatten mode
+    private boolean prerenderYears;
+    private YearBitmapCache bitmapCache;
+    // draws years on the background thread, reused by every job
+    private YearRenderer prerenderRenderer;
+    // a job is running, next one starts when it finishes
+    private boolean prerendering;
+    // drawn instead of live rendering for one frame after switching year
+    private Bitmap showingBitmap;
+    // animation frames passed since showingBitmap was set
+    private int showingBitmapFrames;
+    private final Runnable showLiveRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if(showingBitmapFrames++ == 0) {
+                // this frame draws the bitmap, go live in the next one
+                ViewCompat.postOnAnimation(YearView.this, this);
+                return;
+            }
+            showingBitmap = null;
+            invalidate();
+        }
+    };
+
+    public YearView(Context context) {
+        this(context, null);
+    }
 
     public YearView(Context context, AttributeSet attrs) {
         super(context, attrs);
         setWillNotDraw(false);
         today = new CalendarDay(Calendar.getInstance());
         year = today.getYear();
+        weekStart = Calendar.getInstance().getFirstDayOfWeek();
         TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.YearView);
         Resources resources = context.getResources();
 
         showYearLabel = typedArray.getBoolean(R.styleable.YearView_showYearLabel, true);
         showYearLunarLabel = typedArray.getBoolean(R.styleable.YearView_showYearLunarLabel, false);
+        flattenMonths = typedArray.getBoolean(R.styleable.YearView_flattenMonths, true);
+        prerenderYears = typedArray.getBoolean(R.styleable.YearView_prerenderYears, false);
+        monthColumns = checkColumns(typedArray.getInt(R.styleable.YearView_monthColumns, 3));
         dividerColor = typedArray.getColor(R.styleable.YearView_dividerColor, resources.getColor(R.color.divider_color));
         yearHeaderTextColor = typedArray.getColor(R.styleable.YearView_yearHeaderTextColor, resources.getColor(R.color.year_header_text_color));
         yearHeaderLunarTextColor = typedArray.getColor(R.styleable.YearView_yearHeaderLunarTextColor, resources.getColor(R.color.year_header_lunar_text_color));
@@ -103,16 +164,81 @@ public class YearView extends ViewGroup {
             setBackgroundColor(Color.WHITE);
         }
         initPaint();
-        addMonth();
+        yearRenderer = createYearRenderer(false);
+        yearRenderer.updateHeaderLabels();
+        monthRenderer = yearRenderer.monthRenderer;
+        if(flattenMonths) {
+            monthRenderer.setSelectionModel(mSelectionModel);
+            // registered to the model only while attached
+            selectionObserver = new SelectionObserver();
+        } else {
+            addMonth();
+        }
+    }
+
+    private MonthRenderer createMonthRenderer() {
+        // same as MonthView inflated from R.layout.monthview_in_yearview
+        MonthRenderer monthRenderer = new MonthRenderer(MonthViewStyle.obtain(getContext(), null));
+        monthRenderer.setShowMonthTitle(false);
+        monthRenderer.setShowWeekLabel(false);
+        monthRenderer.setDayTextColor(dayLabelTextColor);
+        monthRenderer.setDayTextSize(DAY_LABEL_TEXT_SIZE);
+        monthRenderer.setDayCircleRadius(DAY_LABEL_CIRCLE_RADIUS);
+        monthRenderer.setDayRowHeight(dayRowHeight);
+        monthRenderer.setWeekStart(weekStart);
+        monthRenderer.setToday(today);
+        return monthRenderer;
+    }
+
+    /**
+     * create a renderer drawing like this view.
+     * @param copyPaints true to use copies of paints, for drawing off UI thread
+     * @return YearRenderer
+     */
+    private YearRenderer createYearRenderer(boolean copyPaints) {
+        YearRenderer renderer = new YearRenderer();
+        applyDimensions(renderer);
+        renderer.yearHeaderTextPaint = copyPaints ? new Paint(yearHeaderTextPaint) : yearHeaderTextPaint;
+        renderer.yearHeaderLunarTextPaint = copyPaints ? new Paint(yearHeaderLunarTextPaint) : yearHeaderLunarTextPaint;
+        renderer.yearHeaderDashPaint = copyPaints ? new Paint(yearHeaderDashPaint) : yearHeaderDashPaint;
+        renderer.dividerPaint = copyPaints ? new Paint(dividerPaint) : dividerPaint;
+        renderer.monthLabelTextPaint = copyPaints ? new Paint(monthLabelTextPaint) : monthLabelTextPaint;
+        if(flattenMonths) {
+            renderer.monthRenderer = createMonthRenderer();
+        }
+        renderer.weekStart = weekStart;
+        renderer.year = year;
+        renderer.today = today;
+        return renderer;
+    }
+
+    private void applyDimensions(YearRenderer renderer) {
+        renderer.yearHeaderTextHeight = YEAR_HEADER_TEXT_HEIGHT;
+        renderer.yearHeaderLunarTextSize = YEAR_HEADER_LUNAR_TEXT_SIZE;
+        renderer.monthHeaderHeight = MONTH_HEADER_HEIGHT;
+        renderer.monthLabelTextSize = MONTH_LABEL_TEXT_SIZE;
+        renderer.padding = padding;
+        renderer.lineSpacingBetweenYearAndMonth = lineSpacingBetweenYearAndMonth;
+        renderer.daysInWeek = daysInWeek;
+        renderer.showYearLabel = showYearLabel;
+        renderer.showYearLunarLabel = showYearLunarLabel;
+        renderer.columns = monthColumns;
+        // each day needs room for its circle
+        renderer.minMonthWidth = 2 * DAY_LABEL_CIRCLE_RADIUS * daysInWeek;
     }
 
     private void addMonth() {
         for (int i = 1; i <= 12; i++) {
             MonthView monthView = createMonthView();
+            monthView.setSelectionModel(mSelectionModel);
             addView(monthView);
         }
     }
 
+    /**
+     * create a MonthView child for a month, only used when flattenMonths is false.
+     * @return MonthView
+     */
     protected MonthView createMonthView() {
         MonthView monthView = (MonthView) LayoutInflater.from(getContext()).inflate(R.layout.monthview_in_yearview, null);
         monthView.setNormalDayTextColor(dayLabelTextColor);
@@ -124,62 +250,184 @@ public class YearView extends ViewGroup {
 
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         width = MeasureSpec.getSize(widthMeasureSpec);
-
-        //measure children
-        int childWidthSpec = MeasureSpec.makeMeasureSpec(getSingleMonthWidth(), MeasureSpec.EXACTLY);
-
-        int maxHeight = 0;
-        for (int i = 1; i <= 12; i++) {
-            MonthView monthView = (MonthView) getChildAt(i - 1);
-            // update month
-            monthView.setYearAndMonth(year, i);
-            //measure MonthView
-            int shouldHeight = monthView.getShouldHeight();
-            int childHeightSpec = MeasureSpec.makeMeasureSpec(shouldHeight, MeasureSpec.EXACTLY);
-            measureChild(monthView, childWidthSpec, childHeightSpec);
-
-            maxHeight = shouldHeight > maxHeight ? shouldHeight : maxHeight;
-
-            if (i % 3 == 0) {
-                monthRowHeight[i / 3 - 1] = maxHeight + MONTH_HEADER_HEIGHT;
-                maxHeight = 0;
+        int styleKey = getGeometryStyleKey();
+        if(year == cachedYear && width == cachedWidth && styleKey == cachedStyleKey) {
+            // nothing relevant changed, reuse row heights and month bounds
+            setMeasuredDimension(width, cachedHeight);
+            return;
+        }
+        monthMeasureCount++;
+
+        applyDimensions(yearRenderer);
+        yearRenderer.setYearAndToday(year, today);
+        yearRenderer.setWidth(width);
+        if(flattenMonths) {
+            yearRenderer.measureMonths();
+        } else {
+            //measure children
+            int childWidthSpec = MeasureSpec.makeMeasureSpec(getSingleMonthWidth(), MeasureSpec.EXACTLY);
+            for (int i = 1; i <= 12; i++) {
+                MonthView monthView = (MonthView) getChildAt(i - 1);
+                // update month
+                monthView.setYearAndMonth(year, i);
+                //measure MonthView
+                int shouldHeight = monthView.getShouldHeight();
+                int childHeightSpec = MeasureSpec.makeMeasureSpec(shouldHeight, MeasureSpec.EXACTLY);
+                measureChild(monthView, childWidthSpec, childHeightSpec);
+                yearRenderer.monthHeights[i - 1] = shouldHeight;
             }
         }
 
-        setMeasuredDimension(width, monthRowHeight[0] + monthRowHeight[1] + monthRowHeight[2] + monthRowHeight[3] + YEAR_HEADER_TEXT_HEIGHT
-                + lineSpacingBetweenYearAndMonth);
+        cachedYear = year;
+        cachedWidth = width;
+        cachedStyleKey = styleKey;
+        cachedHeight = yearRenderer.computeGeometry(width);
+        setMeasuredDimension(width, cachedHeight);
+    }
+
+    // dimensions deciding month geometry
+    private int getGeometryStyleKey() {
+        int key = dayRowHeight;
+        key = 31 * key + MONTH_HEADER_HEIGHT;
+        key = 31 * key + YEAR_HEADER_TEXT_HEIGHT;
+        key = 31 * key + lineSpacingBetweenYearAndMonth;
+        key = 31 * key + padding;
+        key = 31 * key + monthColumns;
+        key = 31 * key + DAY_LABEL_CIRCLE_RADIUS;
+        return key;
+    }
+
+    /**
+     * @return how many times months were measured, a measure pass with same year, width and style
+     * reuses cached geometry and does not count.
+     */
+    int getMonthMeasureCount() {
+        return monthMeasureCount;
     }
 
     @Override
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
-        int pad = getColumnPadding();
-        int y = MONTH_HEADER_HEIGHT + YEAR_HEADER_TEXT_HEIGHT + lineSpacingBetweenYearAndMonth;
-        int x = pad;
-
+        if(flattenMonths)
+            return;
         for (int i = 1; i <= 12; i++) {
-            MonthView monthView = (MonthView) getChildAt(i - 1);
-            //layout month
-            int measuredHeight = monthView.getMeasuredHeight();
-            int measuredWidth = monthView.getMeasuredWidth();
-            monthView.layout(x, y, x + measuredWidth, y + measuredHeight);
-
-            x = x + measuredWidth + pad;
-            if (i % 3 == 0) {
-                y = y + monthRowHeight[i / 3 - 1];
-                x = pad;
-            }
+            Rect bounds = yearRenderer.monthBounds[i - 1];
+            getChildAt(i - 1).layout(bounds.left, bounds.top, bounds.right, bounds.bottom);
         }
     }
 
     protected void onDraw(Canvas canvas) {
-        if(showYearLabel) {
-            drawYearHeaderLabels(canvas);
+        if(showingBitmap != null) {
+            // year just switched, show pre-rendered one, live drawing is swapped in next frame
+            canvas.drawBitmap(showingBitmap, 0, 0, null);
+            return;
+        }
+        yearRenderer.draw(canvas);
+    }
+
+    /**
+     * render years next to showing one into bitmaps off UI thread if they are not cached. Called
+     * when year, size or drawn data changes, never while drawing. One job renders both years
+     * with a reused renderer; a request during a job is served when it finishes.
+     */
+    private void prerenderAdjacentYears() {
+        if(!prerenderYears || !flattenMonths || width == 0 || prerendering)
+            return;
+        final int[] years = new int[2];
+        int count = 0;
+        for(int y = year - 1; y <= year + 1; y += 2) {
+            if(y >= CalendarUtils.MIN_YEAR && y <= CalendarUtils.MAX_YEAR
+                    && getBitmapCache().get(y, width, getGeometryStyleKey(), today, mDecors) == null) {
+                years[count++] = y;
+            }
+        }
+        if(count == 0)
+            return;
+        prerendering = true;
+        if(prerenderRenderer == null) {
+            prerenderRenderer = createYearRenderer(true);
+        }
+        final YearRenderer renderer = prerenderRenderer;
+        // no job is running, safe to update it here
+        applyDimensions(renderer);
+        renderer.weekStart = weekStart;
+        final int jobCount = count;
+        final int width = this.width;
+        final int styleKey = getGeometryStyleKey();
+        final int weekStart = this.weekStart;
+        final CalendarDay today = this.today;
+        final DayDecor decors = mDecors;
+        final DayHeatmap heatmap = mHeatmap;
+        final int[] decorVersions = new int[jobCount];
+        final DayDecor[] slices = new DayDecor[jobCount];
+        for(int i = 0; i < jobCount; i++) {
+            decorVersions[i] = YearBitmapCache.getDecorVersion(decors, years[i]);
+            // DayDecor is not thread safe, cut decors of the year here
+            slices[i] = decors == null ? null
+                    : decors.slice(CalendarUtils.toEpochDay(years[i], 1, 1), CalendarUtils.toEpochDay(years[i], 12, 31));
+        }
+        AsyncTask.THREAD_POOL_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                final Bitmap[] bitmaps = new Bitmap[jobCount];
+                for(int i = 0; i < jobCount; i++) {
+                    int year = years[i];
+                    renderer.yearLayout = YearLayout.compute(year, weekStart, today);
+                    renderer.setYearAndToday(year, today);
+                    renderer.monthRenderer.setToday(today);
+                    renderer.monthRenderer.setDecors(slices[i]);
+                    renderer.monthRenderer.setHeatmap(heatmap);
+                    renderer.measureMonths();
+                    int height = renderer.computeGeometry(width);
+                    bitmaps[i] = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+                    renderer.draw(new Canvas(bitmaps[i]));
+                }
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        for(int i = 0; i < jobCount; i++) {
+                            getBitmapCache().put(years[i], bitmaps[i], width, styleKey, today, decors, decorVersions[i]);
+                        }
+                        prerendering = false;
+                        // year or data may have changed meanwhile
+                        prerenderAdjacentYears();
+                    }
+                });
+            }
+        });
+    }
+
+    private YearBitmapCache getBitmapCache() {
+        if(bitmapCache == null) {
+            // a year bitmap is several megabytes, allow a few of them
+            int maxSizeKb = (int) (Runtime.getRuntime().maxMemory() / 1024 / 8);
+            bitmapCache = new YearBitmapCache(maxSizeKb);
+        }
+        return bitmapCache;
+    }
+
+    /**
+     * render adjacent years into bitmaps off UI thread, so switching to them shows a bitmap at once
+     * and draws the live year in next frame. Only works when months are flattened. Drawable decors
+     * are drawn from a background thread too, so prefer color decors in this mode.
+     * @param prerenderYears true to enable
+     */
+    public void setPrerenderYears(boolean prerenderYears) {
+        this.prerenderYears = prerenderYears;
+        if(!prerenderYears && bitmapCache != null) {
+            bitmapCache.evictAll();
         }
-        drawMonthTitle(canvas);
+        prerenderAdjacentYears();
+        invalidate();
+    }
+
+    public boolean isPrerenderYears() {
+        return prerenderYears;
     }
 
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         width = w;
+        yearRenderer.setWidth(w);
+        prerenderAdjacentYears();
     }
 
     /**
@@ -189,6 +437,13 @@ public class YearView extends ViewGroup {
      */
     public void setToday(CalendarDay today) {
         this.today = today;
+        yearRenderer.setYearAndToday(year, today);
+        if(flattenMonths) {
+            monthRenderer.setToday(today);
+            prerenderAdjacentYears();
+            invalidate();
+            return;
+        }
         for(int i = 0; i < getChildCount(); i++) {
             MonthView monthView = (MonthView) getChildAt(i);
             // add decorates
@@ -196,90 +451,6 @@ public class YearView extends ViewGroup {
         }
     }
 
-    private void drawYearHeaderLabels(Canvas canvas) {
-        if(YEAR_HEADER_TEXT_HEIGHT == 0)
-            return;
-        int y = (4 * YEAR_HEADER_TEXT_HEIGHT) / 5;
-        boolean chinaArea = Locale.getDefault().equals(Locale.CHINA);
-        canvas.drawText(chinaArea ? year + "年" : year + "", 2 * padding, y, yearHeaderTextPaint);
-
-        if (showYearLunarLabel && chinaArea) { //显示农历
-            String animal;
-            String zhiGan;
-            if (year == today.getYear()) { //显示年=今年
-                Lunar lunar = new Lunar(today);
-                animal = lunar.animalsYear();
-                zhiGan = lunar.cyclical();
-                String lunarMonth = lunar.getLunarMonthString();
-                String lunarDay = lunar.getLunarDayString();
-
-                //显示当前日的农历日
-                yearHeaderDashPaint.setStrokeWidth((float) 2.0);
-                canvas.drawLine(width - 5 * YEAR_HEADER_LUNAR_TEXT_SIZE - 2
-                        * padding, (7 * y) / 8, width - 5
-                        * YEAR_HEADER_LUNAR_TEXT_SIZE, (7 * y) / 8, yearHeaderDashPaint);
-                canvas.drawText(lunarMonth + lunarDay, width - 2 * padding, y,
-                        yearHeaderLunarTextPaint);
-            } else {
-                animal = Lunar.animalsYear(year);
-                zhiGan = Lunar.cyclical(year);
-            }
-
-            //显示当前年的农历年
-            yearHeaderDashPaint.setStrokeWidth((float) 4.0);
-            canvas.drawLine(width - 5 * YEAR_HEADER_LUNAR_TEXT_SIZE - 2
-                    * padding, (3 * y) / 8, width - 5
-                    * YEAR_HEADER_LUNAR_TEXT_SIZE, (3 * y) / 8, yearHeaderDashPaint);
-            canvas.drawText(zhiGan + animal + "年", width - 2
-                    * padding, y / 2, yearHeaderLunarTextPaint);
-        }
-
-        canvas.drawLine(2 * padding, YEAR_HEADER_TEXT_HEIGHT, width,
-                YEAR_HEADER_TEXT_HEIGHT, dividerPaint);
-    }
-
-    private void drawMonthTitle(Canvas canvas) {
-        int pad = getColumnPadding();
-        int monthWidth = getSingleMonthWidth();
-        int x;
-        int y = 0;
-
-        for (int i = 1; i <= 12; i++) {
-            String monthLabel = DateFormatSymbols.getInstance().getShortMonths()[i - 1];
-            int xoffset = (int) (monthLabelTextPaint.measureText(monthLabel) / 2f) + padding * 2;
-            int num = (i % 3 == 0 ? 3 : i % 3);
-            x = pad * num + monthWidth * (num - 1) + xoffset;
-            switch (i) {
-                case 1:
-                case 2:
-                case 3:
-                    y = (MONTH_HEADER_HEIGHT + MONTH_LABEL_TEXT_SIZE) / 2 + YEAR_HEADER_TEXT_HEIGHT
-                            + lineSpacingBetweenYearAndMonth;
-                    break;
-                case 4:
-                case 5:
-                case 6:
-                    y = (MONTH_HEADER_HEIGHT + MONTH_LABEL_TEXT_SIZE) / 2 + YEAR_HEADER_TEXT_HEIGHT
-                            + lineSpacingBetweenYearAndMonth + monthRowHeight[0];
-                    break;
-                case 7:
-                case 8:
-                case 9:
-                    y = (MONTH_HEADER_HEIGHT + MONTH_LABEL_TEXT_SIZE) / 2 + YEAR_HEADER_TEXT_HEIGHT
-                            + lineSpacingBetweenYearAndMonth + monthRowHeight[0] + monthRowHeight[1];
-                    break;
-                case 10:
-                case 11:
-                case 12:
-                    y = (MONTH_HEADER_HEIGHT + MONTH_LABEL_TEXT_SIZE) / 2 + YEAR_HEADER_TEXT_HEIGHT
-                            + lineSpacingBetweenYearAndMonth + monthRowHeight[0] + monthRowHeight[1] + monthRowHeight[2];
-                    break;
-            }
-
-            canvas.drawText(monthLabel, x, y, monthLabelTextPaint);
-        }
-    }
-
     void onMonthClick(CalendarMonth calendarMonth) {
         if (mOnMonthClickListener != null) {
             mOnMonthClickListener.onMonthClick(this, calendarMonth);
@@ -324,12 +495,7 @@ public class YearView extends ViewGroup {
     }
 
     protected int getSingleMonthWidth() {
-        int pad = getColumnPadding();
-        return (width - 4 * pad) / 3;
-    }
-
-    private int getColumnPadding() {
-        return (width - 2 * padding) / (4 * daysInWeek) - padding;
+        return yearRenderer.getSingleMonthWidth();
     }
 
     @Override
@@ -352,10 +518,19 @@ public class YearView extends ViewGroup {
                 if (Math.abs(downX - event.getX()) < 10
                         && Math.abs(downY - event.getY()) < 10
                         && event.getEventTime() - event.getDownTime() < 500) {
-                    CalendarMonth calendarDay = getMonthFromLocation((int)event.getX(), (int)event.getY());
-                    if (calendarDay != null) {
-                        onMonthClick(calendarDay);
+                    int x = (int) event.getX();
+                    int y = (int) event.getY();
+                    int month = getMonthIndexAt(x, y);
+                    if (month == 0)
+                        break;
+                    if (mOnDayClickListener != null) {
+                        int epochDay = getDayAt(month, x, y);
+                        if (epochDay != MonthView.NO_DAY) {
+                            mOnDayClickListener.onDayClick(this, CalendarUtils.fromEpochDay(epochDay));
+                            break;
+                        }
                     }
+                    onMonthClick(new CalendarMonth(year, month));
                 }
                 break;
         }
@@ -363,14 +538,28 @@ public class YearView extends ViewGroup {
     }
 
     protected CalendarMonth getMonthFromLocation(int x, int y) {
-        int i = 1;
-        do {
-            if(getMonthRect(i, true).contains(x, y)) {
-                return new CalendarMonth(year, i);
-            }
-            i++;
-        } while (i <= 12);
-        return null;
+        int month = getMonthIndexAt(x, y);
+        return month == 0 ? null : new CalendarMonth(year, month);
+    }
+
+    // month (1 - 12) at location including its label, 0 if none. computed from cached grid.
+    private int getMonthIndexAt(int x, int y) {
+        return yearRenderer.getMonthIndexAt(x, y);
+    }
+
+    // epoch day at location inside a month, NO_DAY if none
+    private int getDayAt(int month, int x, int y) {
+        Rect bounds = yearRenderer.monthBounds[month - 1];
+        if(!bounds.contains(x, y))
+            return MonthView.NO_DAY;
+        MonthRenderer renderer;
+        if(flattenMonths) {
+            renderer = monthRenderer;
+            renderer.setMonth(year, month);
+        } else {
+            renderer = ((MonthView) getChildAt(month - 1)).getRenderer();
+        }
+        return renderer.getDayAt(bounds, x, y);
     }
 
     /**
@@ -380,12 +569,10 @@ public class YearView extends ViewGroup {
      * @return rect
      */
     public Rect getMonthRect(int month, boolean includeLabel) {
-        Rect rect = new Rect();
-        View child = getChildAt(month - 1);
-        rect.left = child.getLeft();
-        rect.top = child.getTop() - (includeLabel ? MONTH_HEADER_HEIGHT : 0);
-        rect.right = child.getRight();
-        rect.bottom = child.getBottom();
+        Rect rect = new Rect(yearRenderer.monthBounds[month - 1]);
+        if(includeLabel) {
+            rect.top -= MONTH_HEADER_HEIGHT;
+        }
         return rect;
     }
 
@@ -396,6 +583,12 @@ public class YearView extends ViewGroup {
      */
     public void setDecors(DayDecor decors) {
         this.mDecors = decors;
+        if(flattenMonths) {
+            monthRenderer.setDecors(decors);
+            prerenderAdjacentYears();
+            invalidate();
+            return;
+        }
         for(int i = 0; i < getChildCount(); i++) {
             MonthView monthView = (MonthView) getChildAt(i);
             // add decorates
@@ -407,13 +600,143 @@ public class YearView extends ViewGroup {
         return mDecors;
     }
 
+    /**
+     * shade days of the year by values of a heatmap, like a contribution graph. days whose decor
+     * has a background are not shaded.
+     * @param heatmap heatmap, null to clear
+     */
+    public void setHeatmap(DayHeatmap heatmap) {
+        this.mHeatmap = heatmap;
+        if(bitmapCache != null) {
+            // pre-rendered years are drawn without it
+            bitmapCache.evictAll();
+        }
+        if(flattenMonths) {
+            monthRenderer.setHeatmap(heatmap);
+            prerenderAdjacentYears();
+            invalidate();
+            return;
+        }
+        for(int i = 0; i < getChildCount(); i++) {
+            MonthView monthView = (MonthView) getChildAt(i);
+            monthView.setHeatmap(heatmap);
+        }
+    }
+
+    public DayHeatmap getHeatmap() {
+        return mHeatmap;
+    }
+
+    /**
+     * select specified calendar day.
+     * @param calendarDay calendarDay; null to clear selection.
+     */
+    public void setSelection(CalendarDay calendarDay) {
+        mSelectionModel.setSelection(calendarDay);
+    }
+
+    /**
+     * set the selection model drawn by months, pass the same model to other views (e.g.
+     * {@link MonthViewPager}) to keep their selection in sync. Pre-rendered years are drawn
+     * without selection.
+     * @param model SelectionModel, not null
+     */
+    public void setSelectionModel(SelectionModel model) {
+        if(mSelectionModel == model)
+            return;
+        if(flattenMonths) {
+            if(getWindowToken() != null) {
+                mSelectionModel.removeOnSelectionChangeListener(selectionObserver);
+                model.addOnSelectionChangeListener(selectionObserver);
+            }
+            mSelectionModel = model;
+            monthRenderer.setSelectionModel(model);
+            invalidate();
+            return;
+        }
+        mSelectionModel = model;
+        for(int i = 0; i < getChildCount(); i++) {
+            MonthView monthView = (MonthView) getChildAt(i);
+            monthView.setSelectionModel(model);
+        }
+    }
+
+    public SelectionModel getSelectionModel() {
+        return mSelectionModel;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if(selectionObserver != null) {
+            mSelectionModel.addOnSelectionChangeListener(selectionObserver);
+            invalidate();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if(selectionObserver != null) {
+            mSelectionModel.removeOnSelectionChangeListener(selectionObserver);
+        }
+    }
+
+    // invalidate months of showing year overlapping days [start, end]
+    private void invalidateDays(int start, int end) {
+        if(start == MonthView.NO_DAY)
+            return;
+        if(end == MonthView.NO_DAY)
+            end = start;
+        int first = Math.max(start, CalendarUtils.toEpochDay(year, 1, 1));
+        int last = Math.min(end, CalendarUtils.toEpochDay(year, 12, 31));
+        if(first > last)
+            return;
+        int firstMonth = CalendarUtils.fromEpochDay(first).getMonth();
+        int lastMonth = CalendarUtils.fromEpochDay(last).getMonth();
+        for(int month = firstMonth; month <= lastMonth; month++) {
+            invalidate(yearRenderer.monthBounds[month - 1]);
+        }
+    }
+
+    // redraw months containing old or new selected days
+    private class SelectionObserver implements SelectionModel.OnSelectionChangeListener {
+        @Override
+        public void onSelectionChanged(SelectionModel model, int oldKey, int newKey) {
+            if(monthRenderer.selectionMode != MonthView.SELECTION_SINGLE)
+                return;
+            invalidateDays(oldKey, oldKey);
+            invalidateDays(newKey, newKey);
+        }
+
+        @Override
+        public void onRangeChanged(SelectionModel model, int oldStart, int oldEnd) {
+            if(monthRenderer.selectionMode != MonthView.SELECTION_RANGE)
+                return;
+            invalidateDays(oldStart, oldEnd);
+            invalidateDays(model.getRangeStartKey(), model.getRangeEndKey());
+        }
+    }
+
     /**
      * 设置日历显示年
      *
      * @param year 显示年
      */
     public void setYear(int year) {
+        if(this.year == year)
+            return;
         this.year = year;
+        yearRenderer.setYearAndToday(year, today);
+        if(prerenderYears && flattenMonths) {
+            showingBitmap = getBitmapCache().get(year, width, getGeometryStyleKey(), today, mDecors);
+            if(showingBitmap != null) {
+                showingBitmapFrames = 0;
+                removeCallbacks(showLiveRunnable);
+                ViewCompat.postOnAnimation(this, showLiveRunnable);
+            }
+            prerenderAdjacentYears();
+        }
         requestLayout();
     }
 
@@ -421,6 +744,104 @@ public class YearView extends ViewGroup {
         return year;
     }
 
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState ss = new SavedState(super.onSaveInstanceState());
+        ss.year = year;
+        ss.monthColumns = monthColumns;
+        return ss;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if(!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState ss = (SavedState) state;
+        super.onRestoreInstanceState(ss.getSuperState());
+        // laid out once with restored year and columns
+        monthColumns = ss.monthColumns;
+        setYear(ss.year);
+        requestLayout();
+    }
+
+    // showing year and columns
+    static class SavedState extends BaseSavedState {
+        int year;
+        int monthColumns;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            year = in.readInt();
+            monthColumns = in.readInt();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeInt(year);
+            out.writeInt(monthColumns);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
+    /**
+     * set columns of months, months fill rows of this many columns.
+     * @param columns 2, 3, 4, 6, or {@link #COLUMNS_AUTO} to use as many columns as months are still
+     *                wide enough for day circles
+     */
+    public void setMonthColumns(int columns) {
+        monthColumns = checkColumns(columns);
+        requestLayout();
+        invalidate();
+        // cached years of the old grid are dropped on lookup
+        prerenderAdjacentYears();
+    }
+
+    public int getMonthColumns() {
+        return monthColumns;
+    }
+
+    private static int checkColumns(int columns) {
+        if(columns != COLUMNS_AUTO && columns != 2 && columns != 3 && columns != 4 && columns != 6)
+            throw new IllegalArgumentException("columns must be 2, 3, 4, 6 or COLUMNS_AUTO");
+        return columns;
+    }
+
+    /**
+     * show the year of precomputed data, which is used instead of computing rows and lunar
+     * labels on UI thread.
+     * @param layout data computed by {@link YearLayout#compute(int, int, CalendarDay)}
+     */
+    void setYearLayout(YearLayout layout) {
+        yearRenderer.yearLayout = layout;
+        setYear(layout.year);
+        invalidate();
+    }
+
+    /**
+     * @return first day of week of months
+     */
+    int getWeekStart() {
+        return weekStart;
+    }
+
     /**
      * get year localized string
      * @return year string
@@ -434,6 +855,19 @@ public class YearView extends ViewGroup {
         mOnMonthClickListener = onMonthClickListener;
     }
 
+    /**
+     * set a listener to listen click on a day. a click on a day goes to this listener
+     * instead of {@link OnMonthClickListener}.
+     * @param onDayClickListener listener; null to click months only
+     */
+    public void setOnDayClickListener(OnDayClickListener onDayClickListener) {
+        mOnDayClickListener = onDayClickListener;
+    }
+
+    public interface OnDayClickListener {
+        void onDayClick(YearView yearView, CalendarDay calendarDay);
+    }
+
     public interface OnMonthClickListener {
         void onMonthClick(YearView yearView, CalendarMonth calendarMonth);
     }
@@ -0,0 +1,66 @@
+package com.missmess.calendarview;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CalendarUtilsTest {
+
+    @Test
+    public void epochDayOfKnownDates() {
+        assertEquals(0, CalendarUtils.toEpochDay(1970, 1, 1));
+        assertEquals(-1, CalendarUtils.toEpochDay(1969, 12, 31));
+        assertEquals(11016, CalendarUtils.toEpochDay(2000, 2, 29));
+        assertEquals(-719162, CalendarUtils.MIN_EPOCH_DAY);
+        assertEquals(2932896, CalendarUtils.MAX_EPOCH_DAY);
+    }
+
+    @Test
+    public void dayOfWeekAtRangeEnds() {
+        assertEquals(Calendar.THURSDAY, CalendarUtils.getDayOfWeek(0));
+        assertEquals(Calendar.MONDAY, CalendarUtils.getDayOfWeek(CalendarUtils.MIN_EPOCH_DAY));
+        assertEquals(Calendar.FRIDAY, CalendarUtils.getDayOfWeek(CalendarUtils.MAX_EPOCH_DAY));
+    }
+
+    @Test
+    public void epochDayRoundTripOverWholeRange() {
+        int epochDay = CalendarUtils.MIN_EPOCH_DAY;
+        for(int year = CalendarUtils.MIN_YEAR; year <= CalendarUtils.MAX_YEAR; year++) {
+            for(int month = 1; month <= 12; month++) {
+                int days = CalendarUtils.getDaysInMonth(month - 1, year);
+                for(int day = 1; day <= days; day++, epochDay++) {
+                    assertEquals(epochDay, CalendarUtils.toEpochDay(year, month, day));
+                    CalendarDay calendarDay = CalendarUtils.fromEpochDay(epochDay);
+                    assertEquals(year, calendarDay.getYear());
+                    assertEquals(month, calendarDay.getMonth());
+                    assertEquals(day, calendarDay.getDay());
+                }
+            }
+        }
+        assertEquals(CalendarUtils.MAX_EPOCH_DAY + 1, epochDay);
+    }
+
+    @Test
+    public void rangeEnds() {
+        assertTrue(CalendarUtils.isInRange(CalendarUtils.MIN_EPOCH_DAY));
+        assertTrue(CalendarUtils.isInRange(CalendarUtils.MAX_EPOCH_DAY));
+        assertFalse(CalendarUtils.isInRange(CalendarUtils.MIN_EPOCH_DAY - 1));
+        assertFalse(CalendarUtils.isInRange(CalendarUtils.MAX_EPOCH_DAY + 1));
+        assertFalse(CalendarUtils.isInRange(MonthView.NO_DAY));
+    }
+
+    @Test
+    public void monthIndexRoundTrip() {
+        for(int year = CalendarUtils.MIN_YEAR; year <= CalendarUtils.MAX_YEAR; year++) {
+            for(int month = 1; month <= 12; month++) {
+                CalendarMonth calendarMonth = CalendarUtils.fromMonthIndex(CalendarUtils.getMonthIndex(year, month));
+                assertEquals(year, calendarMonth.getYear());
+                assertEquals(month, calendarMonth.getMonth());
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.missmess.calendarview;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.Calendar;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * month offsets from prefix sums of a 400 years cycle against rows summed month by month.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class MonthListViewOffsetTest {
+    private MonthListView listView;
+    private int weekStart;
+    private int daysTop;
+    private int rowHeight;
+
+    @Before
+    public void setUp() {
+        listView = new MonthListView(RuntimeEnvironment.application);
+        weekStart = Calendar.getInstance().getFirstDayOfWeek();
+        MonthView monthView = listView.createMonthView();
+        rowHeight = monthView.getDayRowHeight();
+        daysTop = monthView.getMaxHeight() - MonthRenderer.DEFAULT_NUM_ROWS * rowHeight;
+    }
+
+    private void assertOffsets(int minMonth, int maxMonth) {
+        long top = 0;
+        for(int month = minMonth; month <= maxMonth; month++) {
+            assertEquals("top of month " + month, top, listView.getMonthTop(month));
+            assertEquals(month, listView.getMonthAt(top));
+            if(month > minMonth) {
+                assertEquals(month - 1, listView.getMonthAt(top - 1));
+            }
+            top += daysTop + MonthRenderer.calculateNumRows(month / 12, month % 12 + 1, weekStart) * rowHeight;
+        }
+    }
+
+    @Test
+    public void offsetsOverWholeRange() {
+        assertOffsets(CalendarUtils.getMonthIndex(CalendarUtils.MIN_YEAR, 1),
+                CalendarUtils.getMonthIndex(CalendarUtils.MAX_YEAR, 12));
+    }
+
+    @Test
+    public void offsetsFromMonthInsideCycle() {
+        // range starting in the middle of a cycle, and crossing cycle ends at 2000 and 2400
+        listView.setMonthRange(new CalendarMonth(1999, 7), new CalendarMonth(2401, 2));
+        assertOffsets(CalendarUtils.getMonthIndex(1999, 7), CalendarUtils.getMonthIndex(2401, 2));
+    }
+}
@@ -0,0 +1,127 @@
+package com.missmess.calendarview;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.Calendar;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * grids and weeks at the first and last month of [MIN_YEAR, MAX_YEAR] reach days out of range.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class RangeEndTest {
+    private Locale defaultLocale;
+
+    @Before
+    public void setUp() {
+        defaultLocale = Locale.getDefault();
+        // weeks start on sunday, so the first week starts in year 0
+        Locale.setDefault(Locale.US);
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    private static void layoutAndDraw(View view) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(700, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+        view.draw(new Canvas());
+    }
+
+    @Test
+    public void drawMonthsWithOtherMonthDaysAtRangeEnds() {
+        MonthView monthView = new MonthView(RuntimeEnvironment.application);
+        monthView.setShowOtherMonth(true);
+        monthView.setYearAndMonth(CalendarUtils.MIN_YEAR, 1);
+        layoutAndDraw(monthView);
+        MonthRenderer renderer = monthView.getRenderer();
+        Rect bounds = new Rect(0, 0, monthView.getWidth(), monthView.getHeight());
+        int y = renderer.getDaysTop() + 1;
+        // first row: sunday 0000-12-31, then monday 0001-01-01
+        assertEquals(MonthView.NO_DAY, renderer.getDayAt(bounds, 1, y));
+        assertEquals(CalendarUtils.MIN_EPOCH_DAY, renderer.getDayAt(bounds, 101, y));
+
+        monthView.setYearAndMonth(CalendarUtils.MAX_YEAR, 12);
+        layoutAndDraw(monthView);
+        bounds.set(0, 0, monthView.getWidth(), monthView.getHeight());
+        // 9999-12-01 is a wednesday, so friday 9999-12-31 is in the fifth row
+        y = renderer.getDaysTop() + 4 * renderer.dayRowHeight + 1;
+        assertEquals(CalendarUtils.MAX_EPOCH_DAY, renderer.getDayAt(bounds, 501, y));
+        // then saturday 10000-01-01, and the last cell of the grid
+        assertEquals(MonthView.NO_DAY, renderer.getDayAt(bounds, 601, y));
+        y = renderer.getDaysTop() + (renderer.getNumRows() - 1) * renderer.dayRowHeight + 1;
+        assertEquals(MonthView.NO_DAY, renderer.getDayAt(bounds, 699, y));
+    }
+
+    @Test
+    public void drawWeeksAtRangeEnds() {
+        MonthView monthView = new MonthView(RuntimeEnvironment.application);
+        monthView.setWeekMode(true);
+        monthView.setWeek(new CalendarDay(CalendarUtils.MIN_YEAR, 1, 1));
+        layoutAndDraw(monthView);
+        assertEquals(new CalendarDay(CalendarUtils.MIN_YEAR, 1, 1), monthView.getWeekStart());
+        monthView.setWeek(new CalendarDay(CalendarUtils.MAX_YEAR, 12, 31));
+        layoutAndDraw(monthView);
+        assertEquals(new CalendarDay(CalendarUtils.MAX_YEAR, 12, 26), monthView.getWeekStart());
+    }
+
+    @Test
+    public void cellsOutOfRangeAreNotDays() {
+        MonthRenderer renderer = new MonthRenderer(MonthViewStyle.obtain(RuntimeEnvironment.application, null));
+        renderer.setWeekMode(true);
+        renderer.setWeekStart(Calendar.SUNDAY);
+        renderer.setWeekStartKey(renderer.getWeekStartOf(CalendarUtils.MIN_EPOCH_DAY));
+        Rect bounds = new Rect(0, 0, 700, 600);
+        int y = renderer.getDaysTop() + 1;
+        // sunday 0000-12-31, then monday 0001-01-01
+        assertEquals(MonthView.NO_DAY, renderer.getDayAt(bounds, 1, y));
+        assertEquals(CalendarUtils.MIN_EPOCH_DAY, renderer.getDayAt(bounds, 101, y));
+        renderer.draw(new Canvas(), bounds);
+
+        // the last week starting on friday 9999-12-31 has its middle day in year 10000
+        renderer.setWeekStart(Calendar.FRIDAY);
+        renderer.setWeekStartKey(renderer.getWeekStartOf(CalendarUtils.MAX_EPOCH_DAY));
+        assertEquals(new CalendarMonth(CalendarUtils.MAX_YEAR, 12), renderer.getMonth());
+        assertEquals(CalendarUtils.MAX_EPOCH_DAY, renderer.getDayAt(bounds, 1, y));
+        assertEquals(MonthView.NO_DAY, renderer.getDayAt(bounds, 101, y));
+        renderer.draw(new Canvas(), bounds);
+    }
+
+    @Test
+    public void pageWeeksToRangeEnds() {
+        MonthViewPager pager = new MonthViewPager(RuntimeEnvironment.application);
+        pager.addView(new MonthView(RuntimeEnvironment.application),
+                new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        pager.setWeekMode(true);
+
+        // second week, its previous page is the first week starting in year 0
+        pager.setCurrentWeek(new CalendarDay(CalendarUtils.MIN_YEAR, 1, 8));
+        layoutAndDraw(pager);
+        pager.setCurrentWeek(new CalendarDay(CalendarUtils.MIN_YEAR, 1, 1));
+        layoutAndDraw(pager);
+        assertEquals(new CalendarDay(CalendarUtils.MIN_YEAR, 1, 1), pager.getCurrentWeekStart());
+
+        pager.setCurrentWeek(new CalendarDay(CalendarUtils.MAX_YEAR, 12, 24));
+        layoutAndDraw(pager);
+        pager.setCurrentWeek(new CalendarDay(CalendarUtils.MAX_YEAR, 12, 31));
+        layoutAndDraw(pager);
+        assertEquals(new CalendarDay(CalendarUtils.MAX_YEAR, 12, 26), pager.getCurrentWeekStart());
+    }
+}
@@ -0,0 +1,106 @@
+package com.missmess.calendarview;
+
+import android.app.Activity;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class SelectionModelTest {
+    private SelectionModel model;
+    private final List<int[]> changes = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        model = new SelectionModel();
+        model.addOnSelectionChangeListener(new SelectionModel.OnSelectionChangeListener() {
+            @Override
+            public void onSelectionChanged(SelectionModel model, int oldKey, int newKey) {
+                changes.add(new int[] {oldKey, newKey});
+            }
+
+            @Override
+            public void onRangeChanged(SelectionModel model, int oldStart, int oldEnd) {
+                changes.add(new int[] {oldStart, oldEnd, model.getRangeStartKey(), model.getRangeEndKey()});
+            }
+        });
+    }
+
+    @Test
+    public void selectionChangeNotifiesOldAndNewDay() {
+        CalendarDay day = new CalendarDay(2016, 8, 15);
+        model.setSelection(day);
+        model.setSelection(day);
+        model.setSelection(null);
+        assertEquals(2, changes.size());
+        assertEquals(MonthView.NO_DAY, changes.get(0)[0]);
+        assertEquals(CalendarUtils.toEpochDay(day), changes.get(0)[1]);
+        assertEquals(CalendarUtils.toEpochDay(day), changes.get(1)[0]);
+        assertEquals(MonthView.NO_DAY, changes.get(1)[1]);
+        assertNull(model.getSelection());
+    }
+
+    @Test
+    public void rangeEdgesAreSwapped() {
+        CalendarDay start = new CalendarDay(2016, 8, 1);
+        CalendarDay end = new CalendarDay(2016, 9, 30);
+        model.setSelectionRange(end, start);
+        assertEquals(start, model.getSelectionRangeStart());
+        assertEquals(end, model.getSelectionRangeEnd());
+        model.setSelectionRange(start, end);
+        assertEquals(1, changes.size());
+        assertEquals(MonthView.NO_DAY, changes.get(0)[0]);
+        assertEquals(MonthView.NO_DAY, changes.get(0)[1]);
+    }
+
+    @Test
+    public void viewsShareSelection() {
+        MonthView first = new MonthView(RuntimeEnvironment.application);
+        MonthView second = new MonthView(RuntimeEnvironment.application);
+        first.setSelectionModel(model);
+        second.setSelectionModel(model);
+        CalendarDay day = new CalendarDay(2016, 8, 15);
+        first.setSelection(day);
+        assertSame(model, second.getSelectionModel());
+        assertEquals(day, second.getSelectionModel().getSelection());
+    }
+
+    @Test
+    public void viewsListenOnlyWhileAttached() {
+        int listeners = model.getListenerCount();
+        MonthView monthView = new MonthView(RuntimeEnvironment.application);
+        monthView.setSelectionModel(model);
+        assertEquals(listeners, model.getListenerCount());
+
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        FrameLayout root = new FrameLayout(activity);
+        activity.setContentView(root);
+        root.addView(monthView);
+        assertEquals(listeners + 1, model.getListenerCount());
+
+        // switching model while attached moves the listener
+        SelectionModel other = new SelectionModel();
+        monthView.setSelectionModel(other);
+        assertEquals(listeners, model.getListenerCount());
+        assertEquals(1, other.getListenerCount());
+        monthView.setSelectionModel(model);
+
+        root.removeView(monthView);
+        assertEquals(listeners, model.getListenerCount());
+        assertEquals(0, other.getListenerCount());
+    }
+}
@@ -0,0 +1,53 @@
+package com.missmess.calendarview;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class YearViewMeasureTest {
+    private YearView yearView;
+
+    @Before
+    public void setUp() {
+        yearView = new YearView(RuntimeEnvironment.application);
+        yearView.setYear(2016);
+    }
+
+    private void measure(int width) {
+        yearView.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+    }
+
+    @Test
+    public void remeasureWithSameYearWidthAndStyleReusesGeometry() {
+        measure(1080);
+        int count = yearView.getMonthMeasureCount();
+        int height = yearView.getMeasuredHeight();
+        measure(1080);
+        measure(1080);
+        assertEquals(count, yearView.getMonthMeasureCount());
+        assertEquals(height, yearView.getMeasuredHeight());
+    }
+
+    @Test
+    public void changedYearOrWidthMeasuresMonthsAgain() {
+        measure(1080);
+        int count = yearView.getMonthMeasureCount();
+        yearView.setYear(2017);
+        measure(1080);
+        assertEquals(count + 1, yearView.getMonthMeasureCount());
+        measure(720);
+        assertEquals(count + 2, yearView.getMonthMeasureCount());
+        measure(720);
+        assertEquals(count + 2, yearView.getMonthMeasureCount());
+    }
+}